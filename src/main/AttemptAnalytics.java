@@ -0,0 +1,678 @@
+package main;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Every word attempt of every game, kept for the designers to analyze. record() only
+ * offers the attempt to a bounded queue, so the EDT never waits on it (an attempt that
+ * finds the queue full is dropped and counted); a writer thread gathers attempts into
+ * blocks of up to BLOCK_ROWS and writes each block column by column:
+ *
+ *     file:   int magic, int version, then blocks
+ *     block:  int length, int CRC32 of the payload, payload
+ *     payload: varint rows, then the columns
+ *         time     long first time (epoch ms), then varint zigzag delta to each next
+ *         session  runs of the session seed
+ *         level    runs of the level index
+ *         word     varint dictionary size, the distinct words (varint length, UTF-8)
+ *                  in order of first use, then a varint dictionary index per row
+ *         outcome  runs of GameSession.Outcome ordinal
+ *         filled   runs of 0 or 1, 1 when the word filled a box
+ *         hints    runs of the hints used so far in the level
+ *         guess    varint milliseconds since the previous attempt or the level start
+ *     runs:   varint count, then varint zigzag value and varint length of each run
+ *
+ * Players try the same few words of a level again and again, and outcome, level,
+ * session and hints change only now and then, so a block costs a few bytes an attempt
+ * against some forty for a text line. Each block is whole in itself, so a reader can
+ * skip the columns it does not need and a torn last block loses only that block.
+ *
+ * A block is written once it is full or FLUSH_MILLIS after its first attempt. Files
+ * go to -Dwordscapes.analytics (default save/analytics, "off" to disable) and a new
+ * file is started once one passes -Dwordscapes.analytics.rollBytes (default 8 MB).
+ *
+ *     java main.AttemptAnalytics [dir]                 (summarizes the files)
+ *     java main.AttemptAnalytics --generate n [dir]    (writes n synthetic attempts)
+ */
+class AttemptAnalytics {
+    static final int MAGIC = 0x57415454; // "WATT"
+    static final int VERSION = 1;
+    static final int BLOCK_ROWS = 16384;
+    private static final String DEFAULT_DIR = "save/analytics";
+    private static final long DEFAULT_ROLL_BYTES = 8 << 20;
+    private static final long FLUSH_MILLIS = 2000;
+    private static final int QUEUE_CAPACITY = 1 << 16;
+    private static final String SUFFIX = ".wcol";
+
+    private static final LatencyHistogram BLOCK_TIME = Metrics.histogram("analytics.block");
+    private static final LongAdder DROPPED = Metrics.counter("analytics.dropped");
+    private static AttemptAnalytics shared;
+    private static boolean sharedOpened;
+
+    private final Path dir;
+    private final long rollBytes;
+    private final BlockingQueue<Attempt> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private volatile boolean closed;
+    private FileChannel file;   // Only the writer thread touches these
+    private long fileSize;
+    private int fileSequence;
+    long rowsWritten;
+    long bytesWritten;
+
+    private static final Attempt CLOSE = new Attempt(0, 0, 0, "", GameSession.Outcome.REJECTED, false, 0, 0);
+
+    // One checked word
+    static class Attempt {
+        final long time;
+        final long session;
+        final int level;
+        final String word;
+        final GameSession.Outcome outcome;
+        final boolean filled;
+        final int hints;
+        final int guessMillis;
+
+        Attempt(long time, long session, int level, String word, GameSession.Outcome outcome, boolean filled,
+                int hints, int guessMillis) {
+            this.time = time;
+            this.session = session;
+            this.level = level;
+            this.word = word;
+            this.outcome = outcome;
+            this.filled = filled;
+            this.hints = hints;
+            this.guessMillis = guessMillis;
+        }
+    }
+
+    // The columns of one block, for writing and as read back
+    static class Block {
+        int rows;
+        long[] times;
+        long[] sessions;
+        int[] levels;
+        List<String> words = new ArrayList<>(); // The dictionary
+        int[] wordCodes;
+        byte[] outcomes;
+        boolean[] filled;
+        int[] hints;
+        int[] guessMillis;
+
+        Block(int capacity) {
+            times = new long[capacity];
+            sessions = new long[capacity];
+            levels = new int[capacity];
+            wordCodes = new int[capacity];
+            outcomes = new byte[capacity];
+            filled = new boolean[capacity];
+            hints = new int[capacity];
+            guessMillis = new int[capacity];
+        }
+
+        String word(int row) {
+            return words.get(wordCodes[row]);
+        }
+
+        GameSession.Outcome outcome(int row) {
+            return GameSession.Outcome.values()[outcomes[row]];
+        }
+    }
+
+    private AttemptAnalytics(Path dir, long rollBytes) throws IOException {
+        Files.createDirectories(dir);
+        this.dir = dir;
+        this.rollBytes = rollBytes;
+        writer = new Thread(this::writeLoop, "analytics-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    static AttemptAnalytics open(Path dir, long rollBytes) throws IOException {
+        return new AttemptAnalytics(dir, rollBytes);
+    }
+
+    // The export to -Dwordscapes.analytics, started on first use and flushed when the JVM
+    // exits; null if it is off or the directory cannot be made
+    static synchronized AttemptAnalytics shared() {
+        if (!sharedOpened) {
+            sharedOpened = true;
+            String dir = System.getProperty("wordscapes.analytics", DEFAULT_DIR);
+            if (dir.equals("off")) {
+                return null;
+            }
+            try {
+                shared = open(Paths.get(dir), Long.getLong("wordscapes.analytics.rollBytes", DEFAULT_ROLL_BYTES));
+                AttemptAnalytics analytics = shared;
+                Runtime.getRuntime().addShutdownHook(new Thread(analytics::close, "analytics-flush"));
+            } catch (IOException e) {
+                System.out.println("Error opening analytics in " + dir + ": " + e.getMessage());
+            }
+        }
+        return shared;
+    }
+
+    // From any thread; never blocks
+    void record(long session, int level, GameSession.Check check, int hints, int guessMillis) {
+        record(new Attempt(System.currentTimeMillis(), session, level, check.word, check.outcome, check.filled,
+            hints, guessMillis));
+    }
+
+    void record(Attempt attempt) {
+        if (closed || !queue.offer(attempt)) {
+            DROPPED.increment();
+        }
+    }
+
+    // Write what is queued, then stop the writer
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(CLOSE);
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Writer thread ---
+
+    private void writeLoop() {
+        Block block = new Block(BLOCK_ROWS);
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<Attempt> batch = new ArrayList<>();
+        long due = Long.MAX_VALUE;
+        boolean stop = false;
+        while (!stop) {
+            try {
+                long wait = block.rows == 0 ? Long.MAX_VALUE : due - System.currentTimeMillis();
+                Attempt first = wait == Long.MAX_VALUE ? queue.take() : queue.poll(wait, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BLOCK_ROWS);
+                }
+            } catch (InterruptedException e) {
+                continue;
+            }
+            for (Attempt attempt : batch) {
+                if (attempt == CLOSE) {
+                    stop = true;
+                    continue;
+                }
+                if (block.rows == 0) {
+                    due = System.currentTimeMillis() + FLUSH_MILLIS;
+                }
+                add(block, dictionary, attempt);
+                if (block.rows == BLOCK_ROWS) {
+                    write(block, dictionary);
+                }
+            }
+            batch.clear();
+            if (block.rows > 0 && (stop || System.currentTimeMillis() >= due)) {
+                write(block, dictionary);
+            }
+        }
+        try {
+            if (file != null) {
+                file.force(true);
+                file.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Error closing analytics file: " + e.getMessage());
+        }
+    }
+
+    private static void add(Block block, Map<String, Integer> dictionary, Attempt attempt) {
+        int row = block.rows++;
+        block.times[row] = attempt.time;
+        block.sessions[row] = attempt.session;
+        block.levels[row] = attempt.level;
+        Integer code = dictionary.get(attempt.word);
+        if (code == null) {
+            code = block.words.size();
+            block.words.add(attempt.word);
+            dictionary.put(attempt.word, code);
+        }
+        block.wordCodes[row] = code;
+        block.outcomes[row] = (byte) attempt.outcome.ordinal();
+        block.filled[row] = attempt.filled;
+        block.hints[row] = attempt.hints;
+        block.guessMillis[row] = attempt.guessMillis;
+    }
+
+    // Encode and append the block, rolling to a new file if this one is full; then empty it
+    private void write(Block block, Map<String, Integer> dictionary) {
+        long start = System.nanoTime();
+        byte[] payload = encode(block);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer framed = ByteBuffer.allocate(8 + payload.length);
+        framed.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        try {
+            if (file == null || fileSize + framed.remaining() > rollBytes && fileSize > 8) {
+                roll();
+            }
+            while (framed.hasRemaining()) {
+                fileSize += file.write(framed, fileSize);
+            }
+            rowsWritten += block.rows;
+            bytesWritten += 8 + payload.length;
+        } catch (IOException e) {
+            System.out.println("Error writing analytics: " + e.getMessage());
+        }
+        block.rows = 0;
+        block.words.clear();
+        dictionary.clear();
+        BLOCK_TIME.recordSince(start);
+    }
+
+    private void roll() throws IOException {
+        if (file != null) {
+            file.force(true);
+            file.close();
+        }
+        String name = "attempts-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())
+            + String.format("-%03d", fileSequence++) + SUFFIX;
+        file = FileChannel.open(dir.resolve(name), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).flip();
+        fileSize = 0;
+        while (header.hasRemaining()) {
+            fileSize += file.write(header, fileSize);
+        }
+        bytesWritten += 8;
+    }
+
+    // --- Encoding ---
+
+    static byte[] encode(Block block) {
+        Output out = new Output(block.rows * 4 + 64);
+        int rows = block.rows;
+        out.varint(rows);
+
+        out.buffer.putLong(rows > 0 ? block.times[0] : 0);
+        for (int i = 1; i < rows; i++) {
+            out.varint(zigzag(block.times[i] - block.times[i - 1]));
+        }
+        long[] values = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = block.sessions[i];
+        }
+        out.runs(values, rows);
+        for (int i = 0; i < rows; i++) {
+            values[i] = block.levels[i];
+        }
+        out.runs(values, rows);
+
+        out.varint(block.words.size());
+        for (String word : block.words) {
+            byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+            out.varint(bytes.length);
+            out.ensure(bytes.length);
+            out.buffer.put(bytes);
+        }
+        for (int i = 0; i < rows; i++) {
+            out.varint(block.wordCodes[i]);
+        }
+
+        for (int i = 0; i < rows; i++) {
+            values[i] = block.outcomes[i];
+        }
+        out.runs(values, rows);
+        for (int i = 0; i < rows; i++) {
+            values[i] = block.filled[i] ? 1 : 0;
+        }
+        out.runs(values, rows);
+        for (int i = 0; i < rows; i++) {
+            values[i] = block.hints[i];
+        }
+        out.runs(values, rows);
+        for (int i = 0; i < rows; i++) {
+            out.varint(block.guessMillis[i]);
+        }
+        return Arrays.copyOf(out.buffer.array(), out.buffer.position());
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // A growing buffer of varints
+    private static class Output {
+        ByteBuffer buffer;
+
+        Output(int capacity) {
+            buffer = ByteBuffer.allocate(capacity);
+        }
+
+        void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void runs(long[] values, int count) {
+            int runs = 0;
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || values[i] != values[i - 1]) {
+                    runs++;
+                }
+            }
+            varint(runs);
+            for (int i = 0; i < count; ) {
+                int end = i + 1;
+                while (end < count && values[end] == values[i]) {
+                    end++;
+                }
+                varint(zigzag(values[i]));
+                varint(end - i);
+                i = end;
+            }
+        }
+    }
+
+    // --- Decoding ---
+
+    static Block decode(ByteBuffer payload) {
+        int rows = (int) varint(payload);
+        Block block = new Block(rows);
+        block.rows = rows;
+
+        long time = payload.getLong();
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                time += unzigzag(varint(payload));
+            }
+            block.times[i] = time;
+        }
+        long[] values = new long[rows];
+        runs(payload, values);
+        System.arraycopy(values, 0, block.sessions, 0, rows);
+        runs(payload, values);
+        for (int i = 0; i < rows; i++) {
+            block.levels[i] = (int) values[i];
+        }
+
+        int words = (int) varint(payload);
+        for (int w = 0; w < words; w++) {
+            byte[] bytes = new byte[(int) varint(payload)];
+            payload.get(bytes);
+            block.words.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        for (int i = 0; i < rows; i++) {
+            block.wordCodes[i] = (int) varint(payload);
+        }
+
+        runs(payload, values);
+        for (int i = 0; i < rows; i++) {
+            block.outcomes[i] = (byte) values[i];
+        }
+        runs(payload, values);
+        for (int i = 0; i < rows; i++) {
+            block.filled[i] = values[i] != 0;
+        }
+        runs(payload, values);
+        for (int i = 0; i < rows; i++) {
+            block.hints[i] = (int) values[i];
+        }
+        for (int i = 0; i < rows; i++) {
+            block.guessMillis[i] = (int) varint(payload);
+        }
+        return block;
+    }
+
+    private static long varint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static void runs(ByteBuffer in, long[] values) {
+        int runs = (int) varint(in);
+        for (int r = 0, i = 0; r < runs; r++) {
+            long value = unzigzag(varint(in));
+            int length = (int) varint(in);
+            Arrays.fill(values, i, i + length, value);
+            i += length;
+        }
+    }
+
+    // Every whole block of the file, in order; stops quietly at a torn or corrupt tail
+    static void read(Path path, Consumer<Block> blocks) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.remaining() < 8 || data.getInt() != MAGIC || data.getInt() != VERSION) {
+                throw new IOException(path + " is not an attempts file");
+            }
+            CRC32 crc = new CRC32();
+            while (data.remaining() >= 8) {
+                int size = data.getInt();
+                int expected = data.getInt();
+                if (size <= 0 || size > data.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = data.slice().limit(size);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != expected) {
+                    break;
+                }
+                try {
+                    blocks.accept(decode(payload));
+                } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                    break;
+                }
+                data.position(data.position() + size);
+            }
+        }
+    }
+
+    // The attempts files of the directory, oldest first
+    static List<Path> files(Path dir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(dir)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "attempts-*" + SUFFIX)) {
+                stream.forEach(files::add);
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    // --- Summary ---
+
+    private static void summarize(Path dir) throws IOException {
+        List<Path> files = files(dir);
+        long bytes = 0;
+        for (Path file : files) {
+            bytes += Files.size(file);
+        }
+        long[] rows = new long[1];
+        long[] outcomes = new long[GameSession.Outcome.values().length];
+        Map<Integer, long[]> levels = new HashMap<>(); // Attempts and boxes filled
+        Map<String, Long> rejected = new HashMap<>();
+        int[] guessCounts = new int[601]; // By tenth of a second, the last one for a minute or more
+        long start = System.nanoTime();
+        for (Path file : files) {
+            read(file, block -> {
+                rows[0] += block.rows;
+                long[] rejectedByCode = new long[block.words.size()];
+                for (int i = 0; i < block.rows; i++) {
+                    outcomes[block.outcomes[i]]++;
+                    long[] level = levels.computeIfAbsent(block.levels[i], l -> new long[2]);
+                    level[0]++;
+                    if (block.filled[i]) {
+                        level[1]++;
+                    }
+                    if (block.outcomes[i] == GameSession.Outcome.REJECTED.ordinal()) {
+                        rejectedByCode[block.wordCodes[i]]++;
+                    }
+                    guessCounts[Math.min(600, block.guessMillis[i] / 100)]++;
+                }
+                for (int w = 0; w < rejectedByCode.length; w++) {
+                    if (rejectedByCode[w] > 0) {
+                        rejected.merge(block.words.get(w), rejectedByCode[w], Long::sum);
+                    }
+                }
+            });
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d attempts in %d files, %d KB (%.1f bytes an attempt), read in %.2f s (%.0f attempts/s)%n",
+            rows[0], files.size(), bytes / 1024, rows[0] == 0 ? 0 : (double) bytes / rows[0], elapsed, rows[0] / elapsed);
+        if (rows[0] == 0) {
+            return;
+        }
+        StringBuilder line = new StringBuilder("  outcomes");
+        for (GameSession.Outcome outcome : GameSession.Outcome.values()) {
+            line.append(String.format("  %s %.1f%%", outcome, 100.0 * outcomes[outcome.ordinal()] / rows[0]));
+        }
+        System.out.println(line);
+        System.out.printf("  time to guess p50 %.1f s, p90 %.1f s%n",
+            guessPercentile(guessCounts, rows[0], 50), guessPercentile(guessCounts, rows[0], 90));
+        List<Integer> levelIndexes = new ArrayList<>(levels.keySet());
+        Collections.sort(levelIndexes);
+        line = new StringBuilder("  boxes filled per attempt by level");
+        for (int level : levelIndexes) {
+            long[] counts = levels.get(level);
+            line.append(String.format("  %d: %.0f%%", level + 1, 100.0 * counts[1] / counts[0]));
+        }
+        System.out.println(line);
+        List<Map.Entry<String, Long>> common = new ArrayList<>(rejected.entrySet());
+        common.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        line = new StringBuilder("  most rejected");
+        for (Map.Entry<String, Long> entry : common.subList(0, Math.min(10, common.size()))) {
+            line.append("  ").append(entry.getKey()).append(' ').append(entry.getValue());
+        }
+        System.out.println(line);
+    }
+
+    private static double guessPercentile(int[] counts, long total, double percentile) {
+        long wanted = (long) Math.ceil(percentile / 100 * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= wanted) {
+                return i / 10.0;
+            }
+        }
+        return 60;
+    }
+
+    // Attempts at the built-in levels: answers, and the letters shuffled, through the writer
+    private static void generate(Path dir, int count) throws IOException {
+        GameLevel builtIn = new GameLevel("", new HashSet<>());
+        builtIn.initializeLevels();
+        List<GameLevel> levels = builtIn.getLevels();
+        AttemptAnalytics analytics = open(dir, Long.getLong("wordscapes.analytics.rollBytes", DEFAULT_ROLL_BYTES));
+        SplittableRandom random = new SplittableRandom(1);
+        long time = System.currentTimeMillis();
+        long session = random.nextLong();
+        int levelIndex = 0;
+        int hints = 0;
+        long textBytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (random.nextInt(40) == 0) {
+                levelIndex = (levelIndex + 1) % levels.size();
+                hints = 0;
+                if (levelIndex == 0) {
+                    session = random.nextLong();
+                }
+            } else if (random.nextInt(15) == 0) {
+                hints++;
+            }
+            GameLevel level = levels.get(levelIndex);
+            List<String> answers = new ArrayList<>(level.getValidWords());
+            String word;
+            GameSession.Outcome outcome;
+            if (random.nextInt(3) == 0) {
+                word = answers.get(random.nextInt(answers.size()));
+                outcome = GameSession.Outcome.VALID;
+            } else {
+                StringBuilder letters = new StringBuilder(level.getLetters());
+                for (int j = letters.length() - 1; j > 0; j--) {
+                    int k = random.nextInt(j + 1);
+                    char c = letters.charAt(j);
+                    letters.setCharAt(j, letters.charAt(k));
+                    letters.setCharAt(k, c);
+                }
+                word = letters.substring(0, 3 + random.nextInt(Math.max(1, letters.length() - 2)));
+                outcome = GameSession.Outcome.REJECTED;
+            }
+            int guessMillis = 500 + random.nextInt(15000);
+            time += guessMillis;
+            boolean filled = outcome == GameSession.Outcome.VALID && random.nextInt(2) == 0;
+            Attempt attempt = new Attempt(time, session, levelIndex, word, outcome, filled, hints, guessMillis);
+            while (!analytics.queue.offer(attempt)) {
+                Thread.onSpinWait(); // The generator may wait for the writer, the game never does
+            }
+            textBytes += Long.toString(time).length() + Long.toString(session).length() + Integer.toString(levelIndex).length()
+                + word.length() + outcome.name().length() + (filled ? 4 : 5) + Integer.toString(hints).length()
+                + Integer.toString(guessMillis).length() + 8; // Tabs and the newline
+        }
+        analytics.close();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d attempts written in %.2f s (%.0f/s), %d KB against %d KB as tab-separated text%n",
+            analytics.rowsWritten, elapsed, analytics.rowsWritten / elapsed, analytics.bytesWritten / 1024,
+            textBytes / 1024);
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean generate = args.length > 0 && args[0].equals("--generate");
+        int first = generate ? 2 : 0;
+        Path dir = Paths.get(args.length > first ? args[first] : System.getProperty("wordscapes.analytics", DEFAULT_DIR));
+        if (generate) {
+            generate(dir, Integer.parseInt(args[1]));
+        }
+        summarize(dir);
+        Metrics.dump(System.out);
+    }
+}
@@ -0,0 +1,81 @@
+package main;
+
+/**
+ * Compact Bloom filter over words. mightContain() answers "definitely not" with a
+ * few bit probes, so most impossible guesses never reach the exact word sets.
+ */
+public class BloomFilter {
+    private final long[] bits;
+    private final long mask;
+    private final int hashes;
+    private int insertions;
+
+    // Sized for the expected number of words at the target false-positive rate
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        double optimalBits = -n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long size = Long.highestOneBit(Math.max(64, (long) Math.ceil(optimalBits)) - 1) << 1;
+        bits = new long[(int) (size >>> 6)];
+        mask = size - 1;
+        hashes = Math.max(1, (int) Math.round((double) size / n * Math.log(2)));
+    }
+
+    public void add(CharSequence word) {
+        long hash = hash(word);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        insertions++;
+    }
+
+    public boolean mightContain(CharSequence word) {
+        long hash = hash(word);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Expected false-positive rate for the words added so far
+    public double getFalsePositiveRate() {
+        double size = mask + 1;
+        return Math.pow(1 - Math.exp(-hashes * insertions / size), hashes);
+    }
+
+    public int getInsertions() {
+        return insertions;
+    }
+
+    public int getSizeInBytes() {
+        return bits.length * Long.BYTES;
+    }
+
+    // FNV-1a over the characters, finished with a 64-bit mix so both halves are usable
+    private static long hash(CharSequence word) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            h ^= word.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BloomFilter[%d words, %d bytes, %d hashes, fpp=%.4f%%]",
+            insertions, getSizeInBytes(), hashes, getFalsePositiveRate() * 100);
+    }
+}
@@ -0,0 +1,188 @@
+package main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Builds the word frequency table from plain-text corpora of any size.
+ *
+ * Files are read with a FileChannel in fixed-size chunks, each cut back to the last
+ * word boundary so no word is split. Chunks are tokenized on all cores straight from
+ * the bytes into per-thread LongCountMaps keyed by the packed word, with a bounded
+ * number of chunks in flight so memory stays flat however large the corpus is.
+ *
+ * Tokens are runs of ASCII letters. Runs that touch a non-ASCII byte (accented letters
+ * in UTF-8) or are longer than WordFrequencies.MAX_LENGTH are skipped, not split.
+ *
+ *     java main.CorpusIngester res/data/frequencies.bin corpus1.txt [corpus2.txt ...]
+ */
+public class CorpusIngester {
+    private static final int CHUNK_SIZE = 8 << 20;
+    private static final int MIN_COUNT = 3; // Rarer words are left out of the table
+
+    private final ExecutorService pool;
+    private final Semaphore inFlight;
+    private final List<Future<Long>> results = new ArrayList<>();
+    private final List<LongCountMap> maps = new ArrayList<>();
+    private final ThreadLocal<LongCountMap> threadMap;
+    private long tokens;
+
+    public CorpusIngester() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        pool = Executors.newFixedThreadPool(threads);
+        inFlight = new Semaphore(threads * 2);
+        threadMap = ThreadLocal.withInitial(() -> {
+            LongCountMap map = new LongCountMap(1 << 16);
+            synchronized (maps) {
+                maps.add(map);
+            }
+            return map;
+        });
+    }
+
+    // Queue every chunk of the file; blocks while too many chunks wait to be tokenized
+    public void ingest(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            byte[] carry = new byte[0];
+            while (true) {
+                ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE + carry.length);
+                chunk.put(carry);
+                boolean eof = false;
+                while (chunk.hasRemaining()) {
+                    if (channel.read(chunk) < 0) {
+                        eof = true;
+                        break;
+                    }
+                }
+                byte[] bytes = chunk.array();
+                int length = chunk.position();
+                int end = eof ? length : lastBoundary(bytes, length);
+                carry = Arrays.copyOfRange(bytes, end, length);
+
+                inFlight.acquireUninterruptibly();
+                results.add(pool.submit(() -> {
+                    try {
+                        return tokenize(bytes, end, threadMap.get());
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                if (eof) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Cut after the last byte that cannot be part of a word; a chunk without one is taken whole
+    private static int lastBoundary(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (!isWordByte(bytes[i])) {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+
+    private static boolean isWordByte(byte b) {
+        return b < 0 || (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z');
+    }
+
+    // Count the words in bytes[0, end); returns the number of tokens seen
+    static long tokenize(byte[] bytes, int end, LongCountMap counts) {
+        long tokens = 0;
+        long packed = 0;
+        int length = 0;
+        boolean valid = true;
+        for (int i = 0; i <= end; i++) {
+            byte b = i < end ? bytes[i] : (byte) ' ';
+            if (b >= 'a' && b <= 'z') {
+                packed = (packed << 5) | (b - 'a' + 1);
+                length++;
+            } else if (b >= 'A' && b <= 'Z') {
+                packed = (packed << 5) | (b - 'A' + 1);
+                length++;
+            } else if (b < 0) {
+                valid = false; // Part of a multi-byte UTF-8 character
+                length++;
+            } else {
+                if (length > 0) {
+                    tokens++;
+                    if (valid && length <= WordFrequencies.MAX_LENGTH) {
+                        counts.add(packed, 1);
+                    }
+                }
+                packed = 0;
+                length = 0;
+                valid = true;
+            }
+        }
+        return tokens;
+    }
+
+    // Wait for every queued chunk and merge the per-thread counts
+    public LongCountMap finish() throws IOException {
+        try {
+            for (Future<Long> result : results) {
+                tokens += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while counting words", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error counting words", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        LongCountMap merged = new LongCountMap(1 << 20);
+        synchronized (maps) {
+            for (LongCountMap map : maps) {
+                merged.addAll(map);
+            }
+        }
+        return merged;
+    }
+
+    // Tokens counted by finish(), including the ones too long or not A-Z to be counted
+    public long getTokenCount() {
+        return tokens;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage: CorpusIngester <output.bin> <corpus.txt>...");
+            return;
+        }
+        long start = System.nanoTime();
+        CorpusIngester ingester = new CorpusIngester();
+        long bytes = 0;
+        for (int i = 1; i < args.length; i++) {
+            Path corpus = Paths.get(args[i]);
+            bytes += corpus.toFile().length();
+            ingester.ingest(corpus);
+        }
+        LongCountMap counts = ingester.finish();
+        long counted = System.nanoTime();
+
+        Path output = Paths.get(args[0]);
+        WordFrequencies.write(output, counts, ingester.getTokenCount(), MIN_COUNT);
+        long millis = Math.max(1, (counted - start) / 1_000_000);
+        System.out.printf("%d MB, %d tokens, %d distinct words counted in %d ms (%d MB/s)%n",
+            bytes >> 20, ingester.getTokenCount(), counts.size(), millis, (bytes >> 20) * 1000 / millis);
+        System.out.printf("%d words written to %s in %d ms%n", WordFrequencies.load(output).size(), output,
+            (System.nanoTime() - counted) / 1_000_000);
+    }
+}
@@ -0,0 +1,412 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lays a level's words out as an interlocking crossword grid.
+ *
+ * The search works on a 64x64 board kept as bitboards (one long per row, plus a
+ * transposed copy per column), so checking whether a word fits is a handful of
+ * mask operations. Several word orders are searched in parallel with backtracking,
+ * and the most compact layout that places the most words within the time budget wins.
+ */
+public class CrosswordLayout {
+    private static final int SIZE = 64;
+    private static final int MAX_WORD_LENGTH = SIZE - 2;
+
+    // One word on the grid, with coordinates relative to the top-left of the layout
+    public static class Placement {
+        private final String word;
+        private final int row;
+        private final int col;
+        private final boolean across;
+
+        Placement(String word, int row, int col, boolean across) {
+            this.word = word;
+            this.row = row;
+            this.col = col;
+            this.across = across;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getCol() {
+            return col;
+        }
+
+        public boolean isAcross() {
+            return across;
+        }
+    }
+
+    private final List<Placement> placements;
+    private final List<String> unplaced;
+    private final int rows;
+    private final int cols;
+
+    private CrosswordLayout(List<Placement> placements, List<String> unplaced, int rows, int cols) {
+        this.placements = placements;
+        this.unplaced = unplaced;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    public List<Placement> getPlacements() {
+        return Collections.unmodifiableList(placements);
+    }
+
+    // Words that could not be connected to the grid
+    public List<String> getUnplaced() {
+        return Collections.unmodifiableList(unplaced);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    // The grid as characters, with ' ' for empty cells
+    public char[][] toGrid() {
+        char[][] grid = new char[rows][cols];
+        for (char[] row : grid) {
+            java.util.Arrays.fill(row, ' ');
+        }
+        for (Placement p : placements) {
+            for (int i = 0; i < p.word.length(); i++) {
+                grid[p.row + (p.across ? 0 : i)][p.col + (p.across ? i : 0)] = p.word.charAt(i);
+            }
+        }
+        return grid;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (char[] row : toGrid()) {
+            sb.append(row).append('\n');
+        }
+        if (!unplaced.isEmpty()) {
+            sb.append("unplaced: ").append(unplaced).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static CrosswordLayout solve(GameLevel level, long budgetMillis) {
+        return solve(level.getValidWords(), budgetMillis);
+    }
+
+    public static CrosswordLayout solve(Collection<String> words, long budgetMillis) {
+        List<String> ordered = new ArrayList<>();
+        for (String word : words) {
+            if (word.length() >= 2 && word.length() <= MAX_WORD_LENGTH && !ordered.contains(word)) {
+                ordered.add(word);
+            }
+        }
+        // Longest words first: they have the most letters to cross and are the hardest to fit late
+        ordered.sort(Comparator.comparingInt(String::length).reversed().thenComparing(Comparator.naturalOrder()));
+        if (ordered.isEmpty()) {
+            return new CrosswordLayout(new ArrayList<>(), new ArrayList<>(), 0, 0);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        Best best = new Best();
+
+        // Each task searches a different word order: every long word gets a turn as the
+        // anchor, the remaining tasks use seeded shuffles of the tail.
+        int threads = Runtime.getRuntime().availableProcessors();
+        int tasks = Math.max(threads, Math.min(ordered.size(), 4));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "crossword-layout");
+            t.setDaemon(true);
+            return t;
+        });
+        for (int t = 0; t < tasks; t++) {
+            List<String> order = new ArrayList<>(ordered);
+            if (t > 0 && t < ordered.size() && t < 4) {
+                Collections.swap(order, 0, t);
+            } else if (t >= 4) {
+                Collections.shuffle(order.subList(1, order.size()), new Random(t));
+            }
+            pool.execute(() -> new Search(order, best, deadline).run());
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(Math.max(1, budgetMillis) + 50, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pool.shutdownNow();
+
+        return best.toLayout(ordered);
+    }
+
+    // Best layout found by any search task
+    private static class Best {
+        private int placed = -1;
+        private int area = Integer.MAX_VALUE;
+        private List<Placement> placements = new ArrayList<>();
+        private volatile boolean complete;
+
+        synchronized int placed() {
+            return placed;
+        }
+
+        synchronized int area() {
+            return area;
+        }
+
+        synchronized void offer(int placedCount, int layoutArea, List<Placement> candidate, int wordCount) {
+            if (placedCount > placed || (placedCount == placed && layoutArea < area)) {
+                placed = placedCount;
+                area = layoutArea;
+                placements = new ArrayList<>(candidate);
+                if (placedCount == wordCount && layoutArea <= minimalArea(candidate)) {
+                    complete = true;
+                }
+            }
+        }
+
+        // Nothing can beat all words on the footprint of the longest one crossing the next
+        private static int minimalArea(List<Placement> placements) {
+            int longest = 0;
+            for (Placement p : placements) {
+                longest = Math.max(longest, p.word.length());
+            }
+            return longest * (placements.size() > 1 ? 2 : 1);
+        }
+
+        synchronized CrosswordLayout toLayout(List<String> words) {
+            int minRow = Integer.MAX_VALUE, minCol = Integer.MAX_VALUE, maxRow = -1, maxCol = -1;
+            for (Placement p : placements) {
+                minRow = Math.min(minRow, p.row);
+                minCol = Math.min(minCol, p.col);
+                maxRow = Math.max(maxRow, p.row + (p.across ? 0 : p.word.length() - 1));
+                maxCol = Math.max(maxCol, p.col + (p.across ? p.word.length() - 1 : 0));
+            }
+
+            List<Placement> normalized = new ArrayList<>();
+            List<String> unplaced = new ArrayList<>(words);
+            for (Placement p : placements) {
+                normalized.add(new Placement(p.word, p.row - minRow, p.col - minCol, p.across));
+                unplaced.remove(p.word);
+            }
+            if (normalized.isEmpty()) {
+                return new CrosswordLayout(normalized, unplaced, 0, 0);
+            }
+            return new CrosswordLayout(normalized, unplaced, maxRow - minRow + 1, maxCol - minCol + 1);
+        }
+    }
+
+    // Depth-first placement of one word order on a private board
+    private static class Search {
+        private final List<String> words;
+        private final Best best;
+        private final long deadline;
+
+        private final long[] occupied = new long[SIZE];     // bit c of row r
+        private final long[] occupiedT = new long[SIZE];    // bit r of column c
+        private final long[] acrossCells = new long[SIZE];  // cells belonging to an across word, by row
+        private final long[] downCellsT = new long[SIZE];   // cells belonging to a down word, by column
+        private final char[] letters = new char[SIZE * SIZE];
+        private final List<Placement> current = new ArrayList<>();
+        private int nodes;
+        private boolean timedOut;
+
+        Search(List<String> words, Best best, long deadline) {
+            this.words = words;
+            this.best = best;
+            this.deadline = deadline;
+        }
+
+        void run() {
+            String first = words.get(0);
+            int row = SIZE / 2;
+            int col = (SIZE - first.length()) / 2;
+            place(first, row, col, true);
+            search(1, 1, row, row, col, col + first.length() - 1);
+        }
+
+        private void search(int index, int placed, int minRow, int maxRow, int minCol, int maxCol) {
+            if (timedOut || best.complete || (++nodes & 0xFF) == 0 && System.nanoTime() > deadline) {
+                timedOut = true;
+                return;
+            }
+
+            int area = (maxRow - minRow + 1) * (maxCol - minCol + 1);
+            int bestPlaced = best.placed();
+            int reachable = placed + words.size() - index;
+            if (reachable < bestPlaced || (reachable == bestPlaced && area >= best.area())) {
+                return;
+            }
+            if (index == words.size()) {
+                best.offer(placed, area, current, words.size());
+                return;
+            }
+
+            String word = words.get(index);
+            List<int[]> candidates = candidates(word);
+
+            // Most compact placements first, so good layouts are found early and prune the rest
+            candidates.sort(Comparator.comparingInt(c -> areaWith(c, word, minRow, maxRow, minCol, maxCol)));
+            for (int[] c : candidates) {
+                int row = c[0];
+                int col = c[1];
+                boolean across = c[2] == 1;
+                long[] undo = place(word, row, col, across);
+                int endRow = row + (across ? 0 : word.length() - 1);
+                int endCol = col + (across ? word.length() - 1 : 0);
+                search(index + 1, placed + 1,
+                    Math.min(minRow, row), Math.max(maxRow, endRow),
+                    Math.min(minCol, col), Math.max(maxCol, endCol));
+                remove(word, row, col, across, undo);
+                if (timedOut) {
+                    return;
+                }
+            }
+
+            // Leave the word out if it cannot be connected in this branch
+            search(index + 1, placed, minRow, maxRow, minCol, maxCol);
+        }
+
+        private static int areaWith(int[] c, String word, int minRow, int maxRow, int minCol, int maxCol) {
+            boolean across = c[2] == 1;
+            int endRow = c[0] + (across ? 0 : word.length() - 1);
+            int endCol = c[1] + (across ? word.length() - 1 : 0);
+            return (Math.max(maxRow, endRow) - Math.min(minRow, c[0]) + 1)
+                * (Math.max(maxCol, endCol) - Math.min(minCol, c[1]) + 1);
+        }
+
+        // Every position where the word crosses a placed word on a matching letter and fits
+        private List<int[]> candidates(String word) {
+            List<int[]> result = new ArrayList<>();
+            for (Placement p : current) {
+                for (int i = 0; i < p.word.length(); i++) {
+                    char shared = p.word.charAt(i);
+                    int cellRow = p.row + (p.across ? 0 : i);
+                    int cellCol = p.col + (p.across ? i : 0);
+                    for (int j = 0; j < word.length(); j++) {
+                        if (word.charAt(j) != shared) {
+                            continue;
+                        }
+                        boolean across = !p.across;
+                        int row = across ? cellRow : cellRow - j;
+                        int col = across ? cellCol - j : cellCol;
+                        if (fits(word, row, col, across) && !contains(result, row, col, across)) {
+                            result.add(new int[] {row, col, across ? 1 : 0});
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static boolean contains(List<int[]> candidates, int row, int col, boolean across) {
+            for (int[] c : candidates) {
+                if (c[0] == row && c[1] == col && (c[2] == 1) == across) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Across placements are checked on the row boards, down placements on the transposed
+        // column boards; the logic is the same with rows and columns swapped.
+        private boolean fits(String word, int row, int col, boolean across) {
+            int line = across ? row : col;
+            int start = across ? col : row;
+            int length = word.length();
+            if (line < 1 || line > SIZE - 2 || start < 1 || start + length > SIZE - 1) {
+                return false;
+            }
+            long[] board = across ? occupied : occupiedT;
+            long[] sameDirection = across ? acrossCells : downCellsT;
+
+            long span = ((1L << length) - 1) << start;
+            long ends = (1L << (start - 1)) | (1L << (start + length));
+            long crossings = board[line] & span;
+            if ((board[line] & ends) != 0 || crossings == 0 || crossings == span
+                    || (sameDirection[line] & span) != 0) {
+                return false;
+            }
+
+            // New letters may not touch anything beside them
+            long fresh = span & ~crossings;
+            if (((board[line - 1] | board[line + 1]) & fresh) != 0) {
+                return false;
+            }
+
+            for (long bits = crossings; bits != 0; bits &= bits - 1) {
+                int pos = Long.numberOfTrailingZeros(bits);
+                int r = across ? line : pos;
+                int c = across ? pos : line;
+                if (letters[r * SIZE + c] != word.charAt(pos - start)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Returns the cells that were newly filled, for undo
+        private long[] place(String word, int row, int col, boolean across) {
+            int line = across ? row : col;
+            int start = across ? col : row;
+            long span = ((1L << word.length()) - 1) << start;
+            long[] board = across ? occupied : occupiedT;
+            long fresh = span & ~board[line];
+
+            for (int i = 0; i < word.length(); i++) {
+                int r = row + (across ? 0 : i);
+                int c = col + (across ? i : 0);
+                letters[r * SIZE + c] = word.charAt(i);
+                occupied[r] |= 1L << c;
+                occupiedT[c] |= 1L << r;
+            }
+            if (across) {
+                acrossCells[row] |= span;
+            } else {
+                downCellsT[col] |= span;
+            }
+            current.add(new Placement(word, row, col, across));
+            return new long[] {fresh};
+        }
+
+        private void remove(String word, int row, int col, boolean across, long[] undo) {
+            long fresh = undo[0];
+            int start = across ? col : row;
+            for (int i = 0; i < word.length(); i++) {
+                if ((fresh & (1L << (start + i))) == 0) {
+                    continue; // Crossing cell, still owned by the other word
+                }
+                int r = row + (across ? 0 : i);
+                int c = col + (across ? i : 0);
+                letters[r * SIZE + c] = 0;
+                occupied[r] &= ~(1L << c);
+                occupiedT[c] &= ~(1L << r);
+            }
+            long span = ((1L << word.length()) - 1) << start;
+            if (across) {
+                acrossCells[row] &= ~span;
+            } else {
+                downCellsT[col] &= ~span;
+            }
+            current.remove(current.size() - 1);
+        }
+    }
+}
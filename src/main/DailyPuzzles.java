@@ -0,0 +1,218 @@
+package main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * One puzzle per calendar day, the same for every player without any server.
+ *
+ * The puzzle for a date is a pure function of the date and the dictionary: the day of
+ * the week picks the number of letters (five on Monday up to eight on Sunday), and a
+ * shuffle of the SeedSearch candidates of that size, seeded by the year, is dealt out
+ * in date order to the days of the year that take that size, so no two dates of a year
+ * share a letter set while there are candidates enough. A whole year is generated in one
+ * parallel batch into an indexed file, res/daily/YEAR.bin:
+ *
+ *     int magic, int version, int year, int days,
+ *     int[days + 1] offsets into the data, data: one level-pack line per day
+ *
+ * so the game reads a single line by date without parsing the rest. Years without a
+ * file fall back to a seeded pick of the built-in levels.
+ *
+ *     java main.DailyPuzzles words.txt 2026
+ */
+public class DailyPuzzles {
+    private static final String DAILY_DIR = "res/daily/";
+    private static final int MAGIC = 0x4441595A; // "DAYZ"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final long SALT = 0x5DEECE66DL;
+
+    // Letters per puzzle, Monday first
+    private static final int[] SIZE_BY_WEEKDAY = {5, 5, 6, 6, 7, 7, 8};
+
+    private final SeedSearch search;
+    private final SeedSearch.Target target;
+    private final Map<Integer, List<SeedSearch.Candidate>> candidatesBySize = new HashMap<>();
+    private final Map<Long, int[]> orders = new ConcurrentHashMap<>(); // Shuffled candidates per year and size
+
+    public DailyPuzzles(SeedSearch search, SeedSearch.Target target) {
+        this.search = search;
+        this.target = target;
+        for (int size : SIZE_BY_WEEKDAY) {
+            candidatesBySize.computeIfAbsent(size, s -> search.search(s, target, Integer.MAX_VALUE));
+        }
+    }
+
+    private static long seed(int year, int size) {
+        long z = (year * 31L + size) ^ SALT;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return z ^ (z >>> 33);
+    }
+
+    // Letters of the date's puzzle, falling back to smaller letter sets if the dictionary has none of its size
+    private int size(LocalDate date) {
+        int size = SIZE_BY_WEEKDAY[date.getDayOfWeek().getValue() - 1];
+        while (size > 0 && candidatesBySize.getOrDefault(size, List.of()).isEmpty()) {
+            size--;
+        }
+        return size;
+    }
+
+    public GameLevel generate(LocalDate date) {
+        int size = size(date);
+        if (size == 0) {
+            throw new IllegalStateException("No letter sets in the dictionary meet the daily puzzle target");
+        }
+        List<SeedSearch.Candidate> candidates = candidatesBySize.get(size);
+        int[] order = orders.computeIfAbsent(seed(date.getYear(), size), seed -> shuffle(candidates.size(), seed));
+
+        // Several weekdays share a size, so count the earlier dates of this year that take it
+        int occurrence = 0;
+        for (LocalDate day = date.withDayOfYear(1); day.isBefore(date); day = day.plusDays(1)) {
+            if (size(day) == size) {
+                occurrence++;
+            }
+        }
+        String letters = candidates.get(order[occurrence % order.length]).getLetters();
+        return new GameLevel(letters, new HashSet<>(search.words(letters, target)));
+    }
+
+    private static int[] shuffle(int n, long seed) {
+        int[] order = IntStream.range(0, n).toArray();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    // Every puzzle of the year, generated on all cores, in date order
+    public List<GameLevel> generateYear(int year) {
+        return IntStream.rangeClosed(1, Year.of(year).length())
+            .parallel()
+            .mapToObj(day -> generate(LocalDate.ofYearDay(year, day)))
+            .collect(Collectors.toList());
+    }
+
+    public static void writeYear(Path path, int year, List<GameLevel> levels) throws IOException {
+        byte[][] lines = new byte[levels.size()][];
+        int dataBytes = 0;
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = (LevelPack.format(levels.get(i)) + "\n").getBytes(StandardCharsets.UTF_8);
+            dataBytes += lines[i].length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + (lines.length + 1) * Integer.BYTES + dataBytes);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(year).putInt(lines.length);
+        int offset = 0;
+        for (byte[] line : lines) {
+            buffer.putInt(offset);
+            offset += line.length;
+        }
+        buffer.putInt(offset);
+        for (byte[] line : lines) {
+            buffer.put(line);
+        }
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Read one day's puzzle from a year file with three positioned reads
+    public static GameLevel read(Path path, LocalDate date) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("not a daily puzzle file");
+            }
+            int year = header.getInt();
+            int days = header.getInt();
+            int day = date.getDayOfYear() - 1;
+            if (year != date.getYear() || day >= days) {
+                throw new IOException("no puzzle for " + date);
+            }
+
+            ByteBuffer offsets = readFully(channel, HEADER_BYTES + (long) day * Integer.BYTES, 2 * Integer.BYTES);
+            int start = offsets.getInt();
+            int end = offsets.getInt();
+            long dataStart = HEADER_BYTES + (long) (days + 1) * Integer.BYTES;
+            ByteBuffer line = readFully(channel, dataStart + start, end - start);
+            LevelPack.Entry entry = LevelPack.parse(day + 1, new String(line.array(), StandardCharsets.UTF_8));
+            if (entry == null) {
+                throw new IOException("empty puzzle for " + date);
+            }
+            return entry.toGameLevel();
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("truncated daily puzzle file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    // The puzzle for the date: from the year file if there is one, otherwise one of the built-in levels
+    public static GameLevel forDate(LocalDate date) {
+        Path path = Paths.get(DAILY_DIR + date.getYear() + ".bin");
+        if (Files.exists(path)) {
+            try {
+                return read(path, date);
+            } catch (IOException e) {
+                System.out.println("Error reading daily puzzle from " + path + ": " + e.getMessage());
+            }
+        }
+        GameLevel builtIn = new GameLevel("", new HashSet<>());
+        builtIn.initializeLevels();
+        List<GameLevel> levels = builtIn.getLevels();
+        SplittableRandom random = new SplittableRandom(seed(date.getYear(), date.getDayOfYear()));
+        return levels.get(random.nextInt(levels.size()));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage: DailyPuzzles <dictionary> <year> [output.bin]");
+            return;
+        }
+        int year = Integer.parseInt(args[1]);
+        Path output = Paths.get(args.length > 2 ? args[2] : DAILY_DIR + year + ".bin");
+
+        long start = System.nanoTime();
+        Dictionary dictionary = Dictionary.load(Paths.get(args[0]));
+        DailyPuzzles daily = new DailyPuzzles(new SeedSearch(dictionary), new SeedSearch.Target());
+        long prepared = System.nanoTime();
+        List<GameLevel> levels = daily.generateYear(year);
+        writeYear(output, year, levels);
+        long written = System.nanoTime();
+
+        System.out.printf("%d puzzles for %d written to %s: candidates in %d ms, year in %d ms%n",
+            levels.size(), year, output, (prepared - start) / 1_000_000, (written - prepared) / 1_000_000);
+    }
+}
@@ -0,0 +1,155 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Full-language word list used to accept bonus words: real words that can be made
+ * from a level's letters but are not among its answers.
+ *
+ * The list is a plain text file with one word per line, read from
+ * -Dwordscapes.dictionary (default res/dict/words.txt). Words are indexed by
+ * length, and a guess is only looked up after it passed the letter-count check.
+ */
+public class Dictionary {
+    private static final String DEFAULT_PATH = "res/dict/words.txt";
+    private static final int MAX_LENGTH = 32;
+
+    private static volatile Dictionary shared = new Dictionary(new ArrayList<>());
+    private static CompletableFuture<Dictionary> loading;
+
+    private static final double FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    private final List<Set<String>> wordsByLength = new ArrayList<>();
+    private final int size;
+    private final BloomFilter filter;
+    private NearMissIndex nearMissIndex;
+
+    Dictionary(Iterable<String> words) {
+        for (int i = 0; i <= MAX_LENGTH; i++) {
+            wordsByLength.add(new HashSet<>());
+        }
+        int count = 0;
+        for (String word : words) {
+            String normalized = normalize(word);
+            if (normalized != null && wordsByLength.get(normalized.length()).add(normalized)) {
+                count++;
+            }
+        }
+        size = count;
+
+        filter = new BloomFilter(count, FILTER_FALSE_POSITIVE_RATE);
+        for (Set<String> sameLength : wordsByLength) {
+            for (String word : sameLength) {
+                filter.add(word);
+            }
+        }
+    }
+
+    // The shared dictionary; empty until the background load started by loadShared() completes
+    public static Dictionary shared() {
+        return shared;
+    }
+
+    // Start loading the shared dictionary off the EDT, once
+    public static synchronized CompletableFuture<Dictionary> loadShared() {
+        if (loading == null) {
+            Path path = Paths.get(System.getProperty("wordscapes.dictionary", DEFAULT_PATH));
+            loading = CompletableFuture.supplyAsync(() -> {
+                Dictionary dictionary = load(path);
+                dictionary.getNearMissIndex(); // Build it here rather than on the first miss
+                shared = dictionary;
+                return dictionary;
+            });
+        }
+        return loading;
+    }
+
+    public static Dictionary load(Path path) {
+        if (!Files.exists(path)) {
+            System.out.println("Dictionary not found: " + path + " (bonus words disabled)");
+            return new Dictionary(new ArrayList<>());
+        }
+        List<String> words = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                words.add(line);
+            }
+        } catch (IOException e) {
+            System.out.println("Error loading dictionary from " + path + ": " + e.getMessage());
+        }
+        return new Dictionary(words);
+    }
+
+    // Upper-case A-Z words of a usable length, or null
+    private static String normalize(String word) {
+        String trimmed = word.trim().toUpperCase(Locale.ROOT);
+        if (trimmed.length() < 3 || trimmed.length() > MAX_LENGTH) {
+            return null;
+        }
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return null;
+            }
+        }
+        return trimmed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(String word) {
+        int length = word.length();
+        return length <= MAX_LENGTH && filter.mightContain(word) && wordsByLength.get(length).contains(word);
+    }
+
+    // Edit-distance index over all words for near-miss lookups, built on first use
+    public synchronized NearMissIndex getNearMissIndex() {
+        if (nearMissIndex == null) {
+            NearMissIndex index = new NearMissIndex();
+            for (Set<String> sameLength : wordsByLength) {
+                for (String word : sameLength) {
+                    index.add(word);
+                }
+            }
+            nearMissIndex = index;
+        }
+        return nearMissIndex;
+    }
+
+    public BloomFilter getFilter() {
+        return filter;
+    }
+
+    // A real word that can be spelled from the level letters; the count check runs first
+    public boolean isBonusWord(String word, int[] levelLetterCounts) {
+        return LetterCounts.canForm(word, levelLetterCounts) && contains(word);
+    }
+
+    // All words of the given length, for building derived indexes
+    public Set<String> wordsOfLength(int length) {
+        return length <= MAX_LENGTH ? Collections.unmodifiableSet(wordsByLength.get(length)) : Set.of();
+    }
+
+    public int maxLength() {
+        return MAX_LENGTH;
+    }
+}
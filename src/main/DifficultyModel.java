@@ -0,0 +1,262 @@
+package main;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Scores levels from 0 (trivial) to 100 (expert) from measurable features instead of
+ * hand-written labels:
+ *
+ *  - word count: every word is one more thing to find
+ *  - length: long words are harder to see than three-letter ones
+ *  - letter rarity: how unusual the letters of the words are compared with the rest of the pack
+ *  - obscurity: how rare the words are in everyday use, from a frequency lookup
+ *    (WordFrequencies when run from the command line)
+ *  - ambiguity: same-length words that are anagrams or differ by one letter, which the
+ *    crossword slots cannot tell apart
+ *
+ * Letter statistics come from the pack itself, so the whole pack is loaded into memory
+ * and scored in two parallel passes over the loaded levels: one to count letters and
+ * one to score. Sorting by difficulty needs every level anyway.
+ *
+ *     java main.DifficultyModel pack.tsv [sorted.tsv]   (no arguments: the built-in levels)
+ */
+public class DifficultyModel {
+    // Labels used by the built-in levels, easiest first
+    private static final String[] LABELS = {
+        "Easy", "Semi-Easy", "Medium", "Harder", "Hard", "Very Difficult", "Expert"
+    };
+
+    private static final double WEIGHT_WORDS = 0.25;
+    private static final double WEIGHT_LENGTH = 0.20;
+    private static final double WEIGHT_RARITY = 0.15;
+    private static final double WEIGHT_OBSCURITY = 0.25;
+    private static final double WEIGHT_AMBIGUITY = 0.15;
+
+    private static final int MANY_WORDS = 25;      // Word count that scores as hard as it gets
+    private static final double ZIPF_COMMON = 6.0; // Zipf frequency of an everyday word
+    private static final double ZIPF_RARE = 2.0;   // Zipf frequency of a word few players know
+
+    // Zipf frequency (log10 of occurrences per billion words) of a word, or NaN if unknown
+    public interface FrequencyLookup {
+        double zipf(String word);
+    }
+
+    public static final FrequencyLookup NO_FREQUENCIES = word -> Double.NaN;
+
+    // The features of one level, each scaled to 0-1
+    public static class Features {
+        final double words;
+        final double length;
+        final double rarity;
+        final double obscurity;
+        final double ambiguity;
+
+        Features(double words, double length, double rarity, double obscurity, double ambiguity) {
+            this.words = words;
+            this.length = length;
+            this.rarity = rarity;
+            this.obscurity = obscurity;
+            this.ambiguity = ambiguity;
+        }
+
+        public double score() {
+            return 100 * (WEIGHT_WORDS * words + WEIGHT_LENGTH * length + WEIGHT_RARITY * rarity
+                + WEIGHT_OBSCURITY * obscurity + WEIGHT_AMBIGUITY * ambiguity);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "words %.2f  length %.2f  rarity %.2f  obscurity %.2f  ambiguity %.2f",
+                words, length, rarity, obscurity, ambiguity);
+        }
+    }
+
+    private final FrequencyLookup frequencies;
+    private final double[] surprisal = new double[LetterCounts.ALPHABET]; // -log2 p(letter) in the pack
+    private double meanSurprisal = Math.log(LetterCounts.ALPHABET) / Math.log(2);
+
+    public DifficultyModel(FrequencyLookup frequencies) {
+        this.frequencies = frequencies;
+        Arrays.fill(surprisal, meanSurprisal);
+    }
+
+    // Score every level of the pack and store the score with the level
+    public void score(List<GameLevel> levels) {
+        long[] letters = levels.parallelStream()
+            .collect(() -> new long[LetterCounts.ALPHABET], DifficultyModel::countLetters, DifficultyModel::addCounts);
+        learnLetters(letters);
+        levels.parallelStream().forEach(level -> level.setDifficulty(features(level).score()));
+    }
+
+    private static void countLetters(long[] counts, GameLevel level) {
+        for (String word : level.getValidWords()) {
+            for (int i = 0; i < word.length(); i++) {
+                int c = word.charAt(i) - 'A';
+                if (c >= 0 && c < LetterCounts.ALPHABET) {
+                    counts[c]++;
+                }
+            }
+        }
+    }
+
+    private static void addCounts(long[] into, long[] from) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += from[i];
+        }
+    }
+
+    private void learnLetters(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return;
+        }
+        // Add-one smoothing so a letter the pack never uses is rare, not infinitely rare
+        double weighted = 0;
+        for (int i = 0; i < counts.length; i++) {
+            double p = (counts[i] + 1.0) / (total + counts.length);
+            surprisal[i] = -Math.log(p) / Math.log(2);
+            weighted += counts[i] * surprisal[i];
+        }
+        meanSurprisal = weighted / total;
+    }
+
+    public Features features(GameLevel level) {
+        List<String> words = new ArrayList<>(level.getValidWords());
+        if (words.isEmpty()) {
+            return new Features(0, 0, 0, 0, 0);
+        }
+
+        int letterCount = 0;
+        int longest = 0;
+        double surprisalSum = 0;
+        double obscuritySum = 0;
+        int known = 0;
+        for (String word : words) {
+            letterCount += word.length();
+            longest = Math.max(longest, word.length());
+            for (int i = 0; i < word.length(); i++) {
+                int c = word.charAt(i) - 'A';
+                if (c >= 0 && c < LetterCounts.ALPHABET) {
+                    surprisalSum += surprisal[c];
+                }
+            }
+            double zipf = frequencies.zipf(word);
+            if (!Double.isNaN(zipf)) {
+                obscuritySum += clamp((ZIPF_COMMON - zipf) / (ZIPF_COMMON - ZIPF_RARE));
+                known++;
+            }
+        }
+
+        double meanLength = (double) letterCount / words.size();
+        double length = 0.6 * clamp((meanLength - 3) / 4) + 0.4 * clamp((longest - 4) / 8.0);
+        // A pack-average letter mix scores 0.5, a quarter bit rarer per letter scores 1
+        double rarity = clamp(0.5 + 2 * (surprisalSum / letterCount - meanSurprisal));
+        double obscurity = known > 0 ? obscuritySum / known : 0.5;
+        return new Features(clamp((double) words.size() / MANY_WORDS), length, rarity, obscurity, ambiguity(words));
+    }
+
+    // Share of the words that have a same-length anagram or one-letter neighbour
+    private static double ambiguity(List<String> words) {
+        int n = words.size();
+        String[] sorted = new String[n];
+        for (int i = 0; i < n; i++) {
+            char[] letters = words.get(i).toCharArray();
+            Arrays.sort(letters);
+            sorted[i] = new String(letters);
+        }
+        boolean[] confusable = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                String a = words.get(i);
+                String b = words.get(j);
+                if (a.length() == b.length() && (differByOne(a, b) || sorted[i].equals(sorted[j]))) {
+                    confusable[i] = true;
+                    confusable[j] = true;
+                }
+            }
+        }
+        int count = 0;
+        for (boolean c : confusable) {
+            if (c) {
+                count++;
+            }
+        }
+        return (double) count / n;
+    }
+
+    private static boolean differByOne(String a, String b) {
+        int differences = 0;
+        for (int i = 0; i < a.length() && differences < 2; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                differences++;
+            }
+        }
+        return differences == 1;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+
+    // Easiest first; levels with equal scores keep their order
+    public static void sortByDifficulty(List<GameLevel> levels) {
+        levels.sort(Comparator.comparingDouble(GameLevel::getDifficulty));
+    }
+
+    // The built-in label closest to a score
+    public static String label(double score) {
+        return LABELS[labelIndex(score)];
+    }
+
+    private static int labelIndex(double score) {
+        return Math.min((int) (clamp(score / 100) * LABELS.length), LABELS.length - 1);
+    }
+
+    public static void main(String[] args) throws IOException {
+        DifficultyModel model = new DifficultyModel(WordFrequencies.shared());
+        if (args.length == 0) {
+            GameLevel builtIn = new GameLevel("", new HashSet<>());
+            builtIn.initializeLevels();
+            List<GameLevel> levels = builtIn.getLevels();
+            model.score(levels);
+            for (GameLevel level : levels) {
+                System.out.printf(Locale.ROOT, "%-14s %5.1f  %-14s %s%n", level.getLetters(), level.getDifficulty(),
+                    label(level.getDifficulty()), model.features(level));
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<GameLevel> levels = LevelPack.load(Paths.get(args[0]));
+        long loaded = System.nanoTime();
+        model.score(levels);
+        sortByDifficulty(levels);
+        long scored = System.nanoTime();
+
+        int[] perLabel = new int[LABELS.length];
+        for (GameLevel level : levels) {
+            perLabel[labelIndex(level.getDifficulty())]++;
+        }
+        for (int i = 0; i < LABELS.length; i++) {
+            System.out.printf("%-14s %d%n", LABELS[i], perLabel[i]);
+        }
+        if (args.length > 1) {
+            Path out = Paths.get(args[1]);
+            LevelPack.write(out, levels);
+            System.out.println("Sorted pack written to " + out);
+        }
+        System.out.printf("%d levels loaded in %d ms, scored and sorted in %d ms%n",
+            levels.size(), (loaded - start) / 1_000_000, (scored - loaded) / 1_000_000);
+    }
+}
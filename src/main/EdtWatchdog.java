@@ -0,0 +1,226 @@
+package main;
+
+import java.awt.*;
+import java.awt.event.InvocationEvent;
+import java.awt.event.KeyEvent;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Times every task on the event dispatch thread. Tasks running past the threshold
+ * get the EDT stack captured while they are still blocking it, and are kept in a
+ * report of the worst offenders that can be dumped with Ctrl+Shift+D.
+ *
+ * Configured with -Dwordscapes.edt.thresholdMs (default 100) and disabled with
+ * -Dwordscapes.edt.watchdog=false.
+ */
+public class EdtWatchdog {
+    private static final int MAX_SITES = 50;     // Distinct stall locations kept in the report
+    private static final int RECENT_STALLS = 20; // Most recent stalls kept in the report
+
+    private static EdtWatchdog instance;
+
+    private final long thresholdNanos;
+    private final Map<String, Site> sites = new HashMap<>();
+    private final Deque<String> recent = new ArrayDeque<>();
+    private long dispatchedEvents;
+
+    // Written by the EDT, read by the sampler thread
+    private volatile Thread edt;
+    private volatile long dispatchStart;   // 0 while the EDT is idle
+    private volatile long dispatchSeq;
+    private volatile StackTraceElement[] capturedStack;
+    private volatile long capturedSeq = -1;
+
+    private EdtWatchdog(long thresholdMillis) {
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+    }
+
+    // Install the watchdog once, before any window is shown
+    public static synchronized void install() {
+        if (instance != null || !Boolean.parseBoolean(System.getProperty("wordscapes.edt.watchdog", "true"))) {
+            return;
+        }
+        long threshold = Long.getLong("wordscapes.edt.thresholdMs", 100);
+        instance = new EdtWatchdog(Math.max(1, threshold));
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(instance.new TimingEventQueue());
+        instance.startSampler();
+
+        KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(e -> {
+            if (e.getID() == KeyEvent.KEY_PRESSED && e.getKeyCode() == KeyEvent.VK_D
+                    && e.isControlDown() && e.isShiftDown()) {
+                instance.dumpReport(System.out);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // The installed watchdog, or null when it is disabled
+    public static EdtWatchdog getInstance() {
+        return instance;
+    }
+
+    private void startSampler() {
+        Thread sampler = new Thread(() -> {
+            long interval = Math.max(1, thresholdNanos / 4_000_000L);
+            while (true) {
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                sample();
+            }
+        }, "edt-watchdog");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    // Grab the stack while the slow task is still running, once per task
+    private void sample() {
+        long start = dispatchStart;
+        long seq = dispatchSeq;
+        Thread thread = edt;
+        if (start == 0 || thread == null || capturedSeq == seq) {
+            return;
+        }
+        if (System.nanoTime() - start > thresholdNanos) {
+            StackTraceElement[] stack = thread.getStackTrace();
+            if (dispatchSeq == seq) {
+                capturedStack = stack;
+                capturedSeq = seq;
+            }
+        }
+    }
+
+    private void finished(AWTEvent event, long seq, long durationNanos) {
+        dispatchedEvents++;
+        if (durationNanos <= thresholdNanos) {
+            return;
+        }
+        StackTraceElement[] stack = capturedSeq == seq ? capturedStack : null;
+        String key = siteOf(event, stack);
+        long millis = durationNanos / 1_000_000L;
+
+        synchronized (this) {
+            Site site = sites.get(key);
+            if (site == null) {
+                if (sites.size() >= MAX_SITES) {
+                    evictSmallestSite();
+                }
+                site = new Site(key);
+                sites.put(key, site);
+            }
+            site.record(millis, stack);
+
+            recent.addLast(millis + " ms  " + key);
+            if (recent.size() > RECENT_STALLS) {
+                recent.removeFirst();
+            }
+        }
+    }
+
+    private void evictSmallestSite() {
+        Site smallest = null;
+        for (Site site : sites.values()) {
+            if (smallest == null || site.maxMillis < smallest.maxMillis) {
+                smallest = site;
+            }
+        }
+        if (smallest != null) {
+            sites.remove(smallest.key);
+        }
+    }
+
+    // Name a stall after the first game frame on the stack, or the event when there is none
+    private static String siteOf(AWTEvent event, StackTraceElement[] stack) {
+        if (stack != null) {
+            for (StackTraceElement frame : stack) {
+                if (frame.getClassName().startsWith("main.") && !frame.getClassName().startsWith(EdtWatchdog.class.getName())) {
+                    return frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+                }
+            }
+        }
+        if (event instanceof InvocationEvent) {
+            return "InvocationEvent";
+        }
+        return event.getClass().getSimpleName() + "#" + event.getID() + " on " + event.getSource().getClass().getSimpleName();
+    }
+
+    // Print the worst offenders, the slowest first
+    public synchronized void dumpReport(PrintStream out) {
+        List<Site> sorted = new ArrayList<>(sites.values());
+        sorted.sort(Comparator.comparingLong((Site s) -> s.maxMillis).reversed());
+
+        out.println("=== EDT watchdog: " + dispatchedEvents + " events, threshold "
+            + (thresholdNanos / 1_000_000L) + " ms ===");
+        for (Site site : sorted) {
+            out.printf("%6d ms max  %6d ms total  %4d x  %s%n",
+                site.maxMillis, site.totalMillis, site.count, site.key);
+            if (site.worstStack != null) {
+                for (int i = 0; i < Math.min(site.worstStack.length, 12); i++) {
+                    out.println("        at " + site.worstStack[i]);
+                }
+            }
+        }
+        out.println("--- recent stalls ---");
+        for (String stall : recent) {
+            out.println("  " + stall);
+        }
+    }
+
+    // Aggregated stalls that happened at one place in the code
+    private static class Site {
+        final String key;
+        long count;
+        long totalMillis;
+        long maxMillis;
+        StackTraceElement[] worstStack;
+
+        Site(String key) {
+            this.key = key;
+        }
+
+        void record(long millis, StackTraceElement[] stack) {
+            count++;
+            totalMillis += millis;
+            if (millis >= maxMillis) {
+                maxMillis = millis;
+                if (stack != null) {
+                    worstStack = stack;
+                }
+            }
+        }
+    }
+
+    private class TimingEventQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            // A modal dialog pumps events from inside the task that opened it. Each nested
+            // event is timed on its own and the outer task restarts its clock when they return.
+            boolean nested = dispatchStart != 0;
+            edt = Thread.currentThread();
+            dispatchSeq++;
+            dispatchStart = System.nanoTime();
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                long end = System.nanoTime();
+                finished(event, dispatchSeq, end - dispatchStart);
+                if (nested) {
+                    dispatchSeq++;
+                    dispatchStart = end;
+                } else {
+                    dispatchStart = 0;
+                }
+            }
+        }
+    }
+}
@@ -2,92 +2,106 @@ package main;
 
 import javax.swing.*;
 import javax.swing.Timer;
-import javax.swing.border.TitledBorder;
 
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.AffineTransform;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class Game extends JFrame {
     // --- UI Colors and Styling ---
-    private static final Color MAIN_COLOR = new Color(108, 142, 191);
     private static final Color BACKGROUND_COLOR = new Color(240, 245, 255);
-    private static final Color CORRECT_COLOR = new Color(109, 191, 137);
-    private static final Color INCORRECT_COLOR = new Color(212, 90, 80);
     private static final Color CIRCLE_COLOR = new Color(202, 184, 227);
-    private static final Color ACCENT_COLOR = new Color(255, 111, 97);
-    private static final int PADDING = 40;
 
     // --- Game State ---
-    private String currentWord = "";
-    private int score = 0;
-    private int currentLevel = 0;
-    int timeRemaining = 60;
-    int attempts = 0;
-    private static final int maxAttempts = 3;
+    private GameSession session;             // The rules; this frame shows the session and feeds it input
+    private InputJournal journal;            // Every input of the session, for replay
+    private boolean bonusWordsEnabled = Boolean.parseBoolean(System.getProperty("wordscapes.bonusWords", "true"))
+        && ProfileStore.shared().current().isBonusWordsEnabled();
 
     // --- Data Structures for Game Logic ---
     private List<JButton> letterButtons;
-    private Map<String, WordBox> wordBoxes;
-    public Set<String> validWords;
     private List<GameLevel> levels;
-    public Map<Integer, WordBox> wordBoxesByLength;
-
-    // --- Game Level and AI ---
+    private String levelTitle;               // Shown instead of the level number, e.g. for the daily puzzle
+    private boolean snapshotsEnabled;        // Off until a resumed game has been restored
+    private int levelStartScore;             // Score when the level started, for the level leaderboard
+    private boolean gameRecorded;            // The finished game is in the profile and leaderboard; reset by a new game
+    private final AttemptAnalytics analytics = AttemptAnalytics.shared(); // Null when the export is off
+    private long lastAttemptNanos;           // Level start or the last checked word, for the time to guess
+    private Timer timer;                     // The one-second tick; runs only while a level is being played
+
+    // --- Game Level ---
     private GameLevel glevel;
-    private GameAI gameAI;
 
     // --- UI Components ---
-    private JPanel circlePanel;
-    private JPanel wordBoxesPanel;
-    private JPanel historyPanel;
+    private GameBoard board;
+    private LetterCircle circlePanel;
     private JTextField currentWordInput;
 
-    // --- Labels for Game Stats ---
-    private JLabel levelLabel;
-    private JLabel pointsLabel;
-    private JLabel timeLabel;
-    private JLabel attemptsLabel;
-
     // --- Word History ---
-    private DefaultListModel<WordAttempt> wordHistoryModel;
-    private JList<WordAttempt> wordHistoryList;
+    private DefaultListModel<GameBoard.WordAttempt> wordHistoryModel;
     private SoundManager sound;
 
     private WordscapesBackground background;
     private Menu menu;
 
-    private static class WordAttempt {
-        String word;
-        boolean correct;
-
-        WordAttempt(String word, boolean correct) {
-            this.word = word;
-            this.correct = correct;
-        }
-        @Override
-        public String toString() {return word;}
-    }
+    // --- Metrics ---
+    private static final LatencyHistogram TAP_TO_PAINT = Metrics.histogram("input.tapToPaint");
+    private static final LatencyHistogram LEVEL_LOAD_TIME = Metrics.histogram("level.load");
+    private long pendingTapNanos; // Set when a letter is tapped, cleared once the input field repaints
+    private MetricsOverlay metricsOverlay;
 
     // Constructor
     public Game(Menu menu) {
+        this(menu, null, null);
+    }
+
+    // Play the given levels instead of the built-in ones
+    public Game(Menu menu, List<GameLevel> levels, String levelTitle) {
+        this(menu, levels, levelTitle, null);
+    }
+
+    // Resume a saved game on the board it was saved with
+    public Game(Menu menu, GameSnapshot snapshot) {
+        this(menu, snapshot.builtInLevels ? null : List.of(snapshot.toLevel()), snapshot.levelTitle, snapshot);
+    }
+
+    private Game(Menu menu, List<GameLevel> levels, String levelTitle, GameSnapshot snapshot) {
         this.sound = new SoundManager();
-        wordBoxesByLength = new HashMap<>();
         glevel = new GameLevel("", new HashSet<>());
         this.menu = menu;
         glevel.initializeLevels();
-        levels = glevel.getLevels();
-        gameAI = new GameAI();
+        this.levels = levels != null ? levels : glevel.getLevels();
+        this.levelTitle = levelTitle;
         wordHistoryModel = new DefaultListModel<>();
+        if (bonusWordsEnabled) {
+            Dictionary.loadShared();
+        }
+        CompletableFuture.runAsync(WordFrequencies::shared); // Ready before the first hint
+
+        // -Dwordscapes.seed replays the letter order of a recorded game
+        long seed = Long.getLong("wordscapes.seed", System.nanoTime() ^ System.currentTimeMillis());
+        journal = InputJournal.open(seed, bonusWordsEnabled, this.levels);
+        session = new GameSession(this.levels, seed, bonusWordsEnabled, true, journal);
         
         initializeUI();
-        loadLevel(currentLevel);
-        startTimer();
+        createTimer();
+        int firstLevel = 0;
+        if (snapshot != null && snapshot.builtInLevels && snapshot.currentLevel < this.levels.size()) {
+            firstLevel = snapshot.currentLevel;
+        }
+        loadLevel(firstLevel, true);
+        if (snapshot != null) {
+            restoreSnapshot(snapshot);
+        }
+        snapshotsEnabled = true;
+        saveSnapshot();
         setVisible(true);
-        
-        gameAI.setGame(this);
+        if (session.isLevelComplete()) {
+            showLevelCompleteDialog(); // Saved after the last word, before Continue was pressed
+        }
     }
 
     private void initializeUI() {
@@ -110,14 +124,13 @@ public class Game extends JFrame {
         setLocation(0, 0);
 
         // Create and set the WordscapesBackground
-        background = new WordscapesBackground();
+        background = new WordscapesBackground("bg1.jpg");
         setContentPane(background);
-        setLayout(new BorderLayout(10, 10));
 
         letterButtons = new ArrayList<>();
-        wordBoxes = new HashMap<>();
 
         createGamePanels();
+        installMetricsOverlay();
 
         // Set the frame to fullscreen
         GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
@@ -146,360 +159,241 @@ public class Game extends JFrame {
         setFocusable(true);
         requestFocus();
     }
-    void createGamePanels() {
-        JPanel mainContainer = new JPanel(new BorderLayout(20, 20));
-        mainContainer.setOpaque(false);
-        mainContainer.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-
-        // Create top panel container
-        JPanel topPanelContainer = new JPanel(new BorderLayout(20, 20));
-        topPanelContainer.setOpaque(false);
-
-        // Create scoreboard panel
-        JPanel scoreboardPanel = createScoreboardPanel();
-        topPanelContainer.add(scoreboardPanel, BorderLayout.CENTER);
-
-        // Create left side panel that contains both word boxes, input field, and history
-        JPanel leftPanel = new JPanel();
-        leftPanel.setLayout(new BoxLayout(leftPanel, BoxLayout.Y_AXIS));
-        leftPanel.setOpaque(false);
-        leftPanel.setPreferredSize(new Dimension(500, 10));
-
-        // Word boxes panel
-        wordBoxesPanel = new JPanel(new GridLayout(0, 1, 10, 10));
-        wordBoxesPanel.setOpaque(false);
-
-        // Create history panel
-        createHistoryPanel();
-
-        // Create input field panel
-        JPanel wordInputPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-        wordInputPanel.setOpaque(false);
-        currentWordInput = new JTextField();
-        currentWordInput.setPreferredSize(new Dimension(500, 30));
-        currentWordInput.setFont(new Font("Arial", Font.BOLD, 18));
-        currentWordInput.setEditable(true);
-        wordInputPanel.add(currentWordInput);
-
-        // Add components to left panel
-        leftPanel.add(wordBoxesPanel);
-        leftPanel.add(Box.createVerticalStrut(10));
-        leftPanel.add(wordInputPanel);
-        leftPanel.add(Box.createVerticalStrut(10));
-        leftPanel.add(historyPanel);
-
-        createCirclePanel();
-
-        // Add components to main container
-        mainContainer.add(topPanelContainer, BorderLayout.NORTH);
-        mainContainer.add(leftPanel, BorderLayout.WEST);
-        mainContainer.add(circlePanel, BorderLayout.CENTER);
-
-        add(mainContainer);
-    }
-
-    private JPanel createScoreboardPanel() {
-        JPanel scoreboardPanel = new JPanel(new GridLayout(1, 4, 20, 0));
-        scoreboardPanel.setOpaque(false);
-        
-        JButton backButton = new JButton("Back");
-        backButton.setFont(new Font("Arial", Font.BOLD, 14));
-        backButton.setForeground(Color.WHITE);
-        backButton.setBackground(new Color(178, 34, 34));
-        backButton.setFocusPainted(false);
-        backButton.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
-        backButton.addActionListener(e -> returnToMainMenu());
-
-        scoreboardPanel.add(backButton);
-
-        levelLabel = createStyledLabel("LEVEL 1", new Color(70, 130, 180));
-        pointsLabel = createStyledLabel("POINTS: 0", new Color(46, 139, 87));
-        timeLabel = createStyledLabel("TIME: 01:00", new Color(255, 140, 0));
-        attemptsLabel = createStyledLabel("HINTS: 0/3", new Color(178, 34, 34));
-
-        scoreboardPanel.add(levelLabel);
-        scoreboardPanel.add(pointsLabel);
-        scoreboardPanel.add(timeLabel);
-        scoreboardPanel.add(attemptsLabel);
-
-        return scoreboardPanel;
-    }
-    private void returnToMainMenu() {
-        // Stop any ongoing timers or threads
-        // Clear game state
-        score = 0;
-        currentLevel = 0;
-        currentWord = "";
-        timeRemaining = 60;
-        attempts = 0;
-
-        // Clear UI components
-        clearLevel();
-        updatePointsDisplay();
-        updateLevelDisplay();
-        updateTimeDisplay();
-        updateAttemptsDisplay();
-
-        // Show main menu
-        SwingUtilities.invokeLater(() -> {
-            menu.setVisible(true); // Show the menu
-            this.dispose(); // Dispose of the current game window
+    // F3 toggles the metrics overlay; -Dwordscapes.metrics.overlay=true shows it from the start
+    private void installMetricsOverlay() {
+        metricsOverlay = new MetricsOverlay();
+        getLayeredPane().add(metricsOverlay, JLayeredPane.PALETTE_LAYER);
+        metricsOverlay.setActive(Boolean.getBoolean("wordscapes.metrics.overlay"));
+
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+            .put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "toggleMetrics");
+        getRootPane().getActionMap().put("toggleMetrics", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                metricsOverlay.setActive(!metricsOverlay.isVisible());
+            }
         });
     }
 
-    private JLabel createStyledLabel(String text, Color color) {
-        JLabel label = new JLabel(text, SwingConstants.CENTER);
-        label.setFont(new Font("Arial", Font.BOLD, 18));
-        label.setForeground(color);
-        label.setBackground(new Color(255, 255, 255, 200));
-        label.setOpaque(true);
-        label.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(color, 2),
-            BorderFactory.createEmptyBorder(5, 10, 5, 10)
-        ));
-        return label;
-    }
-
-    private void createHistoryPanel() {
-        historyPanel = new JPanel(new BorderLayout(5, 5));
-        historyPanel.setOpaque(false);
-        historyPanel.setBorder(BorderFactory.createTitledBorder(
-            BorderFactory.createLineBorder(MAIN_COLOR),
-            "Word History",
-            TitledBorder.LEFT,
-            TitledBorder.TOP,
-            new Font("Arial", Font.BOLD, 14),
-            MAIN_COLOR
-        ));
-
-        wordHistoryList = new JList<>(wordHistoryModel);
-        wordHistoryList.setCellRenderer(new DefaultListCellRenderer() {
-            @Override
-            public Component getListCellRendererComponent(
-                JList<?> list, Object value, int index,
-                boolean isSelected, boolean cellHasFocus) {
-
-                JLabel label = (JLabel) super.getListCellRendererComponent(
-                    list, value, index, isSelected, cellHasFocus);
-
-                WordAttempt attempt = (WordAttempt) value;
-                label.setForeground(attempt.correct ? CORRECT_COLOR : INCORRECT_COLOR);
-                label.setFont(new Font("Arial", Font.PLAIN, 14));
-                return label;
+    void createGamePanels() {
+        board = new GameBoard(wordHistoryModel, () -> {
+            if (pendingTapNanos != 0) {
+                TAP_TO_PAINT.recordSince(pendingTapNanos);
+                pendingTapNanos = 0;
             }
         });
+        circlePanel = board.circlePanel;
+        currentWordInput = board.currentWordInput;
+        board.backButton.addActionListener(e -> returnToMainMenu());
 
-        JScrollPane scrollPane = new JScrollPane(wordHistoryList);
-        scrollPane.setPreferredSize(new Dimension(200, 200));
-        historyPanel.add(scrollPane, BorderLayout.CENTER);
-    }
-
-    private void createCirclePanel() {
-        circlePanel = new JPanel() {
+        // Swiping across the circle spells a word, checked when the pointer is released
+        circlePanel.setSwipeListener(new LetterCircle.SwipeListener() {
             @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                
-                g2d.setColor(new Color(255, 255, 255, 150));
-                int diameter = Math.min(getWidth(), getHeight()) - (2 * PADDING);
-                int x = (getWidth() - diameter) / 2;
-                int y = (getHeight() - diameter) / 2;
-                g2d.fillOval(x, y, diameter, diameter);
-
-                g2d.setColor(MAIN_COLOR);
-                g2d.setStroke(new BasicStroke(3f));
-                g2d.drawOval(x, y, diameter, diameter);
-
-                setOpaque(false);
+            public void swipeStarted() {
+                session.startSwipe();
+                currentWordInput.setText("");
             }
 
             @Override
-            public Dimension getPreferredSize() {
-                return new Dimension(300, 300);
+            public void letterSwiped(String letter) {
+                session.swipeLetter(letter.charAt(0));
+                currentWordInput.setText(session.getCurrentWord());
             }
-        };
-        circlePanel.setLayout(null);
 
-        circlePanel.addComponentListener(new ComponentAdapter() {
             @Override
-            public void componentResized(ComponentEvent e) {
-                repositionLetterButtons();
+            public void swipeEnded() {
+                showCheck(session.endSwipe());
             }
         });
+
+        board.install(getContentPane());
+    }
+
+    private void returnToMainMenu() {
+        // Stop any ongoing timers or threads
+        timer.stop();
+        snapshotsEnabled = false;
+        GameSnapshot.clear();
+        if (journal != null) {
+            journal.close();
+        }
+
+        // Clear UI components
+        clearLevel();
+
+        // Show main menu
+        SwingUtilities.invokeLater(() -> {
+            menu.setVisible(true); // Show the menu
+            this.dispose(); // Dispose of the current game window
+        });
     }
 
-    private void loadLevel(int levelIndex) {
+    // Start the level; newGame also takes the score back to zero
+    private void loadLevel(int levelIndex, boolean newGame) {
         if (levelIndex >= levels.size()) {
             gameComplete();
             return;
         }
+        long start = System.nanoTime();
+        GameEvents.LevelLoad event = new GameEvents.LevelLoad();
+        event.begin();
 
         GameLevel level = levels.get(levelIndex);
-        validWords = level.getValidWords();
-        gameAI.initializeLevel(validWords, levelIndex + 1, wordBoxesByLength);
-        clearLevel();
-        createWordBoxesForLevel();
-
-        List<Character> shuffledLetters = new ArrayList<>();
-        for (char c : level.getLetters().toCharArray()) {
-            shuffledLetters.add(c);
+        session.loadLevel(levelIndex, newGame);
+        if (newGame) {
+            gameRecorded = false;
         }
-        Collections.shuffle(shuffledLetters);
-
-        for (char c : shuffledLetters) {
-            JButton letterButton = createLetterButton(String.valueOf(c));
-            letterButton.setSize(60, 60);
-            circlePanel.add(letterButton);
-            letterButtons.add(letterButton);
+        levelStartScore = session.getScore();
+        lastAttemptNanos = System.nanoTime();
+        timer.restart();
+        clearLevel();
+        for (char c : session.getLetterOrder()) {
+            letterButtons.add(createLetterButton(String.valueOf(c)));
         }
-
-        repositionLetterButtons();
-        updateLevelDisplay();
-        attempts = 0;
-        resetTimer();
-        resetHintsCounter();
+        board.showLevel(session.getWordBoxes(), letterButtons);
+        board.showStats(session, levelTitle);
         revalidate();
         repaint();
+        LEVEL_LOAD_TIME.recordSince(start);
+        saveSnapshot();
+
+        if (event.shouldCommit()) {
+            event.levelIndex = levelIndex;
+            event.letters = level.getLetters();
+            event.wordCount = level.getValidWords().size();
+            event.commit();
+        }
     }
 
     private void clearLevel() {
-        circlePanel.removeAll();
-        wordBoxesPanel.removeAll();
+        board.clearLevel();
         letterButtons.clear();
-        wordBoxes.clear();
-        currentWord = "";
-        currentWordInput.setText("");
-    }
-
-    private void createWordBoxesForLevel() {
-        wordBoxesByLength.clear();
-
-        Map<Integer, List<String>> wordsByLength = new HashMap<>();
-
-        for (String word : validWords) {
-            wordsByLength.computeIfAbsent(word.length(), k -> new ArrayList<>()).add(word);
-        }
-
-        for (Map.Entry<Integer, List<String>> entry : wordsByLength.entrySet()) {
-            int length = entry.getKey();
-            List<String> wordsOfLength = entry.getValue();
-
-            WordBox wordBox = new WordBox(wordsOfLength.get(0));
-            wordBoxesByLength.put(length, wordBox);
-
-            wordBoxesPanel.add(wordBox);
-
-            for (String word : wordsOfLength) {
-                wordBoxes.put(word, wordBox);
-            }
-        }
     }
 
     private JButton createLetterButton(String letter) {
-        JButton button = new JButton(letter);
-        button.setFont(new Font("Arial", Font.BOLD, 24));
-        button.setForeground(Color.WHITE);
-        button.setBackground(new Color(70, 130, 180, 200));
-        button.setFocusPainted(false);
-        button.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(255, 255, 255, 100), 2),
-            BorderFactory.createEmptyBorder(5, 10, 5, 10)
-        ));
+        JButton button = GameBoard.createLetterButton(letter);
         button.addActionListener(e -> addLetter(letter));
+        circlePanel.installSwipe(button);
+        return button;
+    }
 
-        button.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                button.setBackground(new Color(100, 160, 210, 220));
-            }
-
-            @Override
-            public void mouseExited(MouseEvent e) {
-                button.setBackground(new Color(70, 130, 180, 200));
-            }
-        });
+    // For the SolverBot, which plays through the same buttons
+    GameSession getSession() {
+        return session;
+    }
 
-        return button;
+    List<JButton> getLetterButtons() {
+        return Collections.unmodifiableList(letterButtons);
     }
 
     void repositionLetterButtons() {
-        if (letterButtons.isEmpty()) {
+        circlePanel.layoutLetters(letterButtons);
+    }
+
+    private void addLetter(String letter) {
+        pendingTapNanos = System.nanoTime();
+        GameSession.Check check = session.tapLetter(letter.charAt(0));
+        currentWordInput.setText(session.getCurrentWord());
+        showCheck(check);
+    }
+
+    // Show what checking a word did: the history entry, the score and the level-complete dialog
+    private void showCheck(GameSession.Check check) {
+        currentWordInput.setText(session.getCurrentWord());
+        if (check == null) {
             return;
         }
+        GameBoard.WordAttempt attempt = new GameBoard.WordAttempt(check.word, check.outcome == GameSession.Outcome.VALID
+            || check.outcome == GameSession.Outcome.BONUS, check.outcome == GameSession.Outcome.BONUS);
+        attempt.note = check.note;
+        wordHistoryModel.addElement(attempt);
+        long now = System.nanoTime();
+        if (analytics != null) {
+            analytics.record(session.getSeed(), session.getCurrentLevel(), check, session.getHintsUsed(),
+                (int) Math.min(Integer.MAX_VALUE, (now - lastAttemptNanos) / 1_000_000));
+        }
+        lastAttemptNanos = now;
+        board.wordHistoryList.ensureIndexIsVisible(wordHistoryModel.getSize() - 1);
 
-        int padding = 40;
-        int width = circlePanel.getWidth();
-        int height = circlePanel.getHeight();
-        int diameter = Math.min(width, height) - (2 * padding);
-        int centerX = width / 2;
-        int centerY = height / 2;
-        int radius = diameter / 2 - 30;
-
-        for (int i = 0; i < letterButtons.size(); i++) {
-            JButton button = letterButtons.get(i);
-            double angle = 2 * Math.PI * i / letterButtons.size() - Math.PI / 2;
-            int x = (int) (centerX + radius * Math.cos(angle)) - button.getWidth() / 2;
-            int y = (int) (centerY + radius * Math.sin(angle)) - button.getHeight() / 2;
-            button.setLocation(x, y);
+        if (check.filled || check.outcome == GameSession.Outcome.BONUS) {
+            updatePointsDisplay();
+            saveSnapshot();
+        }
+        if (check.levelComplete) {
+            recordLevelComplete();
+            showLevelCompleteDialog();
         }
     }
 
-    private void addLetter(String letter) {
-        currentWord += letter;
-        currentWordInput.setText(currentWord);
-        if (currentWord.length() >= 3) {
-            checkWord();
+    // Progress goes to the current player's profile; the store writes it off the EDT
+    private void recordLevelComplete() {
+        ProfileStore store = ProfileStore.shared();
+        Profile profile = store.current();
+        if (levelTitle == null) {
+            profile.setHighestLevel(Math.max(profile.getHighestLevel(), session.getCurrentLevel() + 1));
+        }
+        profile.setBestScore(Math.max(profile.getBestScore(), session.getScore()));
+        store.put(profile);
+        if (levelTitle == null) {
+            int level = session.getCurrentLevel() + 1;
+            int score = session.getScore() - levelStartScore;
+            Leaderboard.loadShared().thenAccept(leaderboard -> leaderboard.recordLevel(profile.getName(), level, score));
         }
     }
 
-    private void checkWord() {
-        if (currentWord.length() < 3) {
+    // Once per game, however many times it is seen to end
+    private void recordGame() {
+        if (gameRecorded) {
             return;
         }
-        boolean isValidWord = validWords.contains(currentWord);
-
-        wordHistoryModel.addElement(new WordAttempt(currentWord, isValidWord));
-
-        wordHistoryList.ensureIndexIsVisible(wordHistoryModel.getSize() - 1);
-
-        if (isValidWord) {
-            WordBox wordBox = wordBoxes.get(currentWord);
-            if (wordBox != null && !wordBox.isFilled()) {
-                wordBox.fillWord(currentWord);
-                wordBox.setFilled(true);
-
-                int score = gameAI.calculateScore(currentWord, gameAI.getHintsUsed() > 0);
-                this.score += score;
-                updatePointsDisplay();
+        gameRecorded = true;
+        ProfileStore store = ProfileStore.shared();
+        Profile profile = store.current();
+        profile.recordGame(session.getScore());
+        store.put(profile);
+        int level = levelTitle == null ? session.getCurrentLevel() + 1 : 0;
+        int score = session.getScore();
+        // Recorded at once if the leaderboard has loaded, so the rank label below counts it
+        Leaderboard.loadShared().thenAccept(leaderboard -> leaderboard.recordGame(profile.getName(), level, score));
+    }
 
-                validWords.remove(currentWord);
-                gameAI.wordSolved(currentWord);
+    // Where the final score places among today's games
+    private JLabel createRankLabel() {
+        Leaderboard leaderboard = Leaderboard.sharedIfLoaded();
+        JLabel rankLabel = new JLabel(leaderboard == null ? "Today's Rank: still loading scores"
+            : "Today's Rank: #" + leaderboard.today().rank(session.getScore()) + " of " + leaderboard.today().size());
+        rankLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        rankLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        return rankLabel;
+    }
 
-                currentWord = "";
-                currentWordInput.setText("");
+    private void saveSnapshot() {
+        if (!snapshotsEnabled) {
+            return;
+        }
+        GameSnapshot snapshot = session.toSnapshot();
+        snapshot.builtInLevels = levelTitle == null;
+        snapshot.levelTitle = levelTitle;
+        snapshot.save();
+    }
 
-                if (wordBoxesByLength.values().stream().allMatch(WordBox::isFilled)) {
-                    showLevelCompleteDialog();
-                }
-            }
-        } else {
-            boolean isValidPrefix = false;
-            for (String word : validWords) {
-                if (word.startsWith(currentWord)) {
-                    isValidPrefix = true;
-                    break;
-                }
+    // Put the board back the way it was saved; a snapshot of another level only keeps the score
+    private void restoreSnapshot(GameSnapshot snapshot) {
+        if (session.restore(snapshot)) {
+            for (String word : session.getSolvedWords()) {
+                wordHistoryModel.addElement(new GameBoard.WordAttempt(word, true));
             }
-
-            if (!isValidPrefix) {
-                currentWord = "";
-                currentWordInput.setText("");
+            for (String word : session.getBonusWords()) {
+                wordHistoryModel.addElement(new GameBoard.WordAttempt(word, true, true));
             }
+        } else {
+            System.out.println("Saved game does not match level " + (session.getCurrentLevel() + 1) + "; starting the level over");
         }
+        updatePointsDisplay();
+        updateTimeDisplay();
+        updateAttemptsDisplay();
     }
+
     private void showLevelCompleteDialog() {
         // Get the root pane's layered pane to manage overlay
         JLayeredPane layeredPane = getRootPane().getLayeredPane();
@@ -561,11 +455,11 @@ public class Game extends JFrame {
         scorePanel.setOpaque(false);
         scorePanel.setLayout(new BoxLayout(scorePanel, BoxLayout.Y_AXIS));
 
-        JLabel scoreLabel = new JLabel("Score: " + score);
+        JLabel scoreLabel = new JLabel("Score: " + session.getScore());
         scoreLabel.setFont(new Font("Arial", Font.BOLD, 24));
         scoreLabel.setForeground(new Color(46, 139, 87));
 
-        JLabel levelLabel = new JLabel("Level: " + (currentLevel + 1));
+        JLabel levelLabel = new JLabel("Level: " + (session.getCurrentLevel() + 1));
         levelLabel.setFont(new Font("Arial", Font.PLAIN, 18));
         levelLabel.setForeground(new Color(100, 100, 100));
 
@@ -603,8 +497,7 @@ public class Game extends JFrame {
         // Continue button action
         continueButton.addActionListener(e -> {
             layeredPane.remove(overlayPanel);
-            currentLevel++;
-            loadLevel(currentLevel);
+            loadLevel(session.getCurrentLevel() + 1, false);
             revalidate();
             repaint();
         });
@@ -634,8 +527,7 @@ public class Game extends JFrame {
             public void keyPressed(KeyEvent e) {
                 if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
                     layeredPane.remove(overlayPanel);
-                    currentLevel++;
-                    loadLevel(currentLevel);
+                    loadLevel(session.getCurrentLevel() + 1, false);
                     revalidate();
                     repaint();
                 }
@@ -659,6 +551,10 @@ public class Game extends JFrame {
     }
 
     private void gameComplete() {
+        timer.stop();
+        snapshotsEnabled = false; // Until the next game starts
+        GameSnapshot.clear();
+        recordGame();
         JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
         panel.setBackground(new Color(245, 245, 245));
@@ -673,12 +569,12 @@ public class Game extends JFrame {
         completionLabel.setFont(new Font("Arial", Font.BOLD, 18));
         completionLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        JLabel scoreLabel = new JLabel("Final Score: " + score);
+        JLabel scoreLabel = new JLabel("Final Score: " + session.getScore());
         scoreLabel.setFont(new Font("Arial", Font.BOLD, 20));
         scoreLabel.setForeground(new Color(46, 139, 87));
         scoreLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        JLabel attemptsLabel = new JLabel("Hints Used: " + gameAI.getHintsUsed());
+        JLabel attemptsLabel = new JLabel("Hints Used: " + session.getHintsUsed());
         attemptsLabel.setFont(new Font("Arial", Font.BOLD, 18));
         attemptsLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
@@ -695,11 +591,8 @@ public class Game extends JFrame {
             new Color(70, 130, 180), Color.WHITE, buttonFont);
         playAgainButton.addActionListener(e -> {
             dialog.dispose();
-            score = 0;
-            currentLevel = 0;
-            gameAI = new GameAI();
-            restart();
-            loadLevel(currentLevel);
+            snapshotsEnabled = true;
+            loadLevel(0, true);
         });
 
         JButton exitButton = createStyledButton("Exit", buttonSize,
@@ -712,6 +605,8 @@ public class Game extends JFrame {
         panel.add(completionLabel);
         panel.add(Box.createVerticalStrut(15));
         panel.add(scoreLabel);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(createRankLabel());
         panel.add(Box.createVerticalStrut(15));
         panel.add(attemptsLabel);
         panel.add(Box.createVerticalStrut(25));
@@ -726,6 +621,10 @@ public class Game extends JFrame {
         dialog.setVisible(true);
     }
   private void gameOver() {
+        timer.stop();
+        snapshotsEnabled = false; // Until the next game starts
+        GameSnapshot.clear();
+        recordGame();
         JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
         panel.setBackground(new Color(245, 245, 245));
@@ -736,11 +635,11 @@ public class Game extends JFrame {
         titleLabel.setForeground(new Color(180, 70, 70));
         titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        JLabel levelLabel = new JLabel("Level " + (currentLevel + 1));
+        JLabel levelLabel = new JLabel("Level " + (session.getCurrentLevel() + 1));
         levelLabel.setFont(new Font("Arial", Font.BOLD, 18));
         levelLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        JLabel scoreLabel = new JLabel("Final Score: " + score);
+        JLabel scoreLabel = new JLabel("Final Score: " + session.getScore());
         scoreLabel.setFont(new Font("Arial", Font.BOLD, 20));
         scoreLabel.setForeground(new Color(70, 130, 180));
         scoreLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
@@ -757,7 +656,8 @@ public class Game extends JFrame {
         retryButton.addActionListener(e -> {
             Window dialog = SwingUtilities.getWindowAncestor(panel);
             dialog.dispose();
-            restart();
+            snapshotsEnabled = true;
+            loadLevel(session.getCurrentLevel(), true);
         });
 
         JButton newGameButton = createStyledButton("New Game", buttonSize,
@@ -765,9 +665,8 @@ public class Game extends JFrame {
         newGameButton.addActionListener(e -> {
             Window dialog = SwingUtilities.getWindowAncestor(panel);
             dialog.dispose();
-            restart();
-            currentLevel = 0;
-            loadLevel(currentLevel);
+            snapshotsEnabled = true;
+            loadLevel(0, true);
         });
 
         JButton exitButton = createStyledButton("Exit", buttonSize,
@@ -780,6 +679,8 @@ public class Game extends JFrame {
         panel.add(levelLabel);
         panel.add(Box.createVerticalStrut(15));
         panel.add(scoreLabel);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(createRankLabel());
         panel.add(Box.createVerticalStrut(25));
         buttonPanel.add(retryButton);
         buttonPanel.add(newGameButton);
@@ -794,66 +695,34 @@ public class Game extends JFrame {
         dialog.setVisible(true);
     }
 
-    private void restart() {
-        score = 0;
-        updatePointsDisplay();
-        wordBoxesByLength.clear();
-        loadLevel(currentLevel);
-        attempts = 0;
-        updateAttemptsDisplay();
-        resetTimer();
-        updateTimeDisplay();
-        currentWordInput.setText("");
-    }
-
-    private void startTimer() {
-        Timer timer = new Timer(1000, e -> {
-            timeRemaining--;
+    // Started by loadLevel, stopped when the game ends or is left
+    private void createTimer() {
+        timer = new Timer(1000, e -> {
+            GameSession.Tick tick = session.tick();
             updateTimeDisplay();
-
-            if (timeRemaining <= 0) {
-                attempts++;
-                updateAttemptsDisplay();
-                if (attempts >= maxAttempts) {
-                   gameOver();
-                } else {
-                    gameAI.provideHint();
-                    resetTimer();
-                }
+            updateAttemptsDisplay();
+
+            if (tick == GameSession.Tick.GAME_OVER) {
+                gameOver();
+            } else if (tick == GameSession.Tick.HINT) {
+                saveSnapshot();
+            } else if (session.getTimeRemaining() % 5 == 0) {
+                saveSnapshot(); // Keep the saved timer within a few seconds
             }
         });
         timer.setRepeats(true);
-        timer.start();
-    }
-
-    private void resetTimer() {
-        timeRemaining = 60;
-        updateTimeDisplay();
-    }
-
-    private void resetHintsCounter() {
-        gameAI.resetHintsCounter();
-        attempts = 0;
-        updateAttemptsDisplay();
     }
 
     void updateTimeDisplay() {
-        int minutes = timeRemaining / 60;
-        int seconds = timeRemaining % 60;
-        String timeString = String.format("%02d:%02d", minutes, seconds);
-        timeLabel.setText("TIME: " + timeString);
+        board.showTime(session);
     }
 
     private void updatePointsDisplay() {
-        pointsLabel.setText("POINTS: " + score);
-    }
-
-    private void updateLevelDisplay() {
-        levelLabel.setText("LEVEL: " + (currentLevel + 1));
+        board.showPoints(session);
     }
 
     void updateAttemptsDisplay() {
-        attemptsLabel.setText("HINTS: " + attempts + "/3");
+        board.showHints(session);
     }
     
 }
\ No newline at end of file
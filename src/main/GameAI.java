@@ -1,19 +1,23 @@
 package main;
 import java.awt.*;
 import java.util.*;
-import java.util.stream.Collectors;
 import javax.swing.*;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 public class GameAI {
-    private final Map<String, Integer> hintIndexes;    // Stores the index of the next letter to give as a hint for each word
+    private final Map<String, Integer> hintIndexes;    // Stores the index into the planned letter order of the next hint for each word
+    private HintPlanner hintPlan;    // Hint order for the current level, worked out when it loads
+    private int planCursor;    // Plan step of the word currently being hinted
     private Set<String> validWords;    // Set of valid words that the player must guess
     private int hintsUsed;    // Counter for the number of hints used
     private int currentLevel;    // Current difficulty level of the game (1, 2, or 3)
-    private int HINT_TIMER_SECONDS = 60; // Constant for the hint timer duration in seconds
     private boolean hintUsedThisRound = false;    // Flag to track if a hint was used during the current round
-    private Map<Integer, WordBox> wordBoxesByLength; // Map to store WordBoxes by length
-    private Game game; // Reference to the GameUIV2 instance
+    private Map<Integer, WordSlot> wordBoxesByLength; // Map to store WordBoxes by length
+    private GameSession session; // The game the hints are given in
+    private GameRules rules = GameRules.DEFAULT; // Points and time penalties
+    private static final LatencyHistogram HINT_TIME = Metrics.histogram("hint.provide");
+    private static final LongAdder HINTS_GIVEN = Metrics.counter("hints.given");
 
     // Constructor to initialize the game AI
     public GameAI() {
@@ -29,9 +33,12 @@ public class GameAI {
     }
 
     // Initialize the level with a set of valid words and the selected difficulty level
-    public void initializeLevel(Set<String> validWords, int level, Map<Integer, WordBox> wordBoxesByLength) {
+    // The hint plan is worked out once per level and can be shared by every game of that level
+    public void initializeLevel(Set<String> validWords, HintPlanner hintPlan, int level, Map<Integer, WordSlot> wordBoxesByLength) {
         this.validWords = validWords;
         this.hintIndexes.clear(); // Reset the hint index
+        this.hintPlan = hintPlan;
+        this.planCursor = 0;
         this.hintsUsed = 0; // Reset hint usage
         this.currentLevel = level; // Set the difficulty level
         this.wordBoxesByLength = wordBoxesByLength; // Assign the reference to the map
@@ -42,6 +49,31 @@ public class GameAI {
         return hintsUsed;
     }
 
+    // Hint progress of each word in the given order, for saving the game
+    public int[] getHintProgress(List<String> words) {
+        int[] progress = new int[words.size()];
+        for (int i = 0; i < progress.length; i++) {
+            progress[i] = hintIndexes.getOrDefault(words.get(i), 0);
+        }
+        return progress;
+    }
+
+    public int getPlanCursor() {
+        return planCursor;
+    }
+
+    // Continue hinting where a saved game left off
+    public void restoreHints(List<String> words, int[] progress, int hintsUsed, int planCursor) {
+        hintIndexes.clear();
+        for (int i = 0; i < words.size() && i < progress.length; i++) {
+            if (progress[i] > 0) {
+                hintIndexes.put(words.get(i), progress[i]);
+            }
+        }
+        this.hintsUsed = hintsUsed;
+        this.planCursor = Math.min(planCursor, hintPlan.getSteps().size());
+    }
+
     // Set if a hint was used in the current round
     public void setHintUsedThisRound(boolean used) {
         this.hintUsedThisRound = used;
@@ -52,90 +84,114 @@ public class GameAI {
         return hintUsedThisRound;
     }
 
-    // Set the reference to the GameUI instance
-    public void setGame(Game game) {
-        this.game = game;
+    // Set the game the hints are given in
+    void setSession(GameSession session) {
+        this.session = session;
+        this.rules = session.getRules();
     }
 
     // Provide the hint and reveal the next letter of a word
     public void provideHint() {
-        // Find an unsolved WordBox with an empty word
-        WordBox unsolvedWordBox = wordBoxesByLength.values().stream()
-            .filter(box -> !box.isFilled()) // Look for boxes that are not filled yet
-            .findFirst()
-            .orElse(null);
-
-        // If there are no unsolved wordboxes, return
-        if (unsolvedWordBox == null) {
-            return; // All wordboxes are solved
+        long start = System.nanoTime();
+        try {
+            revealHint();
+        } finally {
+            HINT_TIME.recordSince(start);
         }
+    }
 
-        // Get the valid words of the same length as the unsolved wordbox
-        List<String> wordsOfSameLength = validWords.stream()
-            .filter(word -> word.length() == unsolvedWordBox.getWordLength())
-            .collect(Collectors.toList());
-
-        // Pick a word from the list of words with the same length as the unsolved box
-        String word = wordsOfSameLength.isEmpty() ? "" : wordsOfSameLength.get(0);
+    private void revealHint() {
+        // Walk the plan from the word hinted last, skipping words that were solved or whose box is complete
+        List<HintPlanner.Step> steps = hintPlan.getSteps();
+        WordSlot unsolvedWordBox = null;
+        HintResult hintResult = null;
+        while (planCursor < steps.size()) {
+            String candidate = steps.get(planCursor).getWord();
+            unsolvedWordBox = wordBoxesByLength.get(candidate.length());
+            if (unsolvedWordBox != null && !unsolvedWordBox.isFilled() && validWords.contains(candidate)) {
+                hintResult = getNextHint(candidate);
+                if (hintResult != null) {
+                    break;
+                }
+            }
+            planCursor++;
+        }
 
-        // If no word is found, return
-        if (word.isEmpty()) {
-            return; // No valid words left
+        // If there is nothing left to hint, return
+        if (hintResult == null) {
+            return; // All wordboxes are solved
         }
+        String word = hintResult.getWord();
 
-        // Get the next hint for the word
-        HintResult hintResult = getNextHint(word);
+        // Only reveal the letter if it's not already filled
+        if (!unsolvedWordBox.isLetterRevealed(hintResult.getPosition())) {
+            GameEvents.Hint event = new GameEvents.Hint();
+            event.begin();
+            unsolvedWordBox.revealLetter(hintResult.getPosition(), hintResult.getLetter());
 
-        if (hintResult != null) {
-            // Only reveal the letter if it's not already filled
-            if (!unsolvedWordBox.isLetterRevealed(hintResult.getPosition())) {
-                unsolvedWordBox.revealLetter(hintResult.getPosition(), hintResult.getLetter());
+            // Mark the word as solved if all letters have been revealed
+            if (unsolvedWordBox.isFilled()) {
+                wordSolved(word);  // Mark the word as solved
+            }
 
-                // Mark the word as solved if all letters have been revealed
-                if (unsolvedWordBox.isFilled()) {
-                    wordSolved(word);  // Mark the word as solved
-                }
+            // Update hint-related tracking
+            hintsUsed++;
+            HINTS_GIVEN.increment();
+            session.attempts = hintsUsed;
 
-                // Update hint-related tracking
-                hintsUsed++;
-                game.attempts = hintsUsed;
-                game.updateAttemptsDisplay();
+            // Subtract time for using a hint, leaving at least a second
+            session.timeRemaining = Math.max(1, session.timeRemaining - rules.hintPenaltySeconds);
 
-                // Subtract time for using a hint
-                game.timeRemaining -= 10;
-                game.updateTimeDisplay();
+            if (event.shouldCommit()) {
+                event.level = currentLevel;
+                event.word = word;
+                event.position = hintResult.getPosition();
+                event.hintsUsed = hintsUsed;
+                event.commit();
             }
         }
     }
 
-    // Get the next hint for the player (returns the next letter in the word)
+    // Get the next hint for the word: the next planned letter that is not showing yet
     public HintResult getNextHint(String word) {
-        hintIndexes.putIfAbsent(word, 0); // Initialize the index for the word if it doesn't exist
-        int currentIndex = hintIndexes.get(word);
-        if (currentIndex < word.length()) {
-            // Return the next letter and its position
-            hintIndexes.put(word, currentIndex + 1); // Update the hint index for the word
-            return new HintResult(word, word.charAt(currentIndex), currentIndex); // Return the hint
+        HintPlanner.Step step = hintPlan.getStep(word);
+        if (step == null) {
+            return null;
+        }
+        WordSlot wordBox = wordBoxesByLength.get(word.length());
+        int currentIndex = hintIndexes.getOrDefault(word, 0);
+        while (currentIndex < step.size()) {
+            int position = step.getPosition(currentIndex++);
+            if (wordBox == null || !wordBox.isLetterRevealed(position)) {
+                hintIndexes.put(word, currentIndex); // Update the hint index for the word
+                return new HintResult(word, word.charAt(position), position); // Return the hint
+            }
         }
+        hintIndexes.put(word, currentIndex);
         return null;
     }
 
     // Calculate the score for a word based on its length, hints used, and other factors
     public int calculateScore(String word, boolean usedHint) {
-        int basePoints = word.length() * 10; // Basic points based on word length
+        int basePoints = word.length() * rules.letterPoints; // Basic points based on word length
         if (hintsUsed == 0) {
-            basePoints *= 2; // Double points if no hints used
+            basePoints *= rules.noHintMultiplier; // Extra points if no hints used
         }
-        if (word.length() > 4) {
-            basePoints += (word.length() - 4) * 5; // Extra points for words longer than 4 letters
+        if (word.length() > rules.longWordLength) {
+            basePoints += (word.length() - rules.longWordLength) * rules.longWordPoints; // Extra points for long words
         }
         return basePoints;
     }
-    
+
+
+    // Bonus words are worth half a regular word and never get the no-hint bonus
+    public int calculateBonusScore(String word) {
+        return word.length() * rules.bonusLetterPoints;
+    }
 
     // Generate a message based on the player's performance
     public String getPerformanceMessage(int timeRemaining, boolean usedHint) {
-        if (hintsUsed == 0 && timeRemaining > HINT_TIMER_SECONDS / 2) {
+        if (hintsUsed == 0 && timeRemaining > rules.roundSeconds / 2) {
             return "Excellent! Perfect solve with no hints!";
         } else if (hintsUsed == 0) {
             return "Great job! Solved without hints!";
@@ -153,19 +209,19 @@ public class GameAI {
             return; // If no valid words are left, end the game
         }
 
-        // After solving a word, select another word of the same length
-        List<String> sameLengthWords = validWords.stream()
-            .filter(w -> w.length() == word.length()) // Filter words by length
-            .collect(Collectors.toList());
-
-        if (!sameLengthWords.isEmpty()) {
-            String newWord = sameLengthWords.get(0); // Pick the first word of the same length
-            // Reveal the first letter of the new word
-            HintResult newHintResult = new HintResult(newWord, newWord.charAt(0), 0);
-            WordBox wordBox = wordBoxesByLength.get(newWord.length());
-            if (wordBox != null && !wordBox.isFilled()) {
-                wordBox.revealLetter(0, newHintResult.getLetter());
-                hintIndexes.put(newWord, 1); // Start the hint for the new word
+        // After solving a word, give the first planned letter of the next word of the same length
+        WordSlot wordBox = wordBoxesByLength.get(word.length());
+        if (wordBox == null || wordBox.isFilled()) {
+            return;
+        }
+        for (HintPlanner.Step step : hintPlan.getSteps()) {
+            String newWord = step.getWord();
+            if (newWord.length() == word.length() && validWords.contains(newWord)) {
+                HintResult newHintResult = getNextHint(newWord);
+                if (newHintResult != null) {
+                    wordBox.revealLetter(newHintResult.getPosition(), newHintResult.getLetter());
+                }
+                return;
             }
         }
     }
@@ -0,0 +1,260 @@
+package main;
+
+import javax.swing.*;
+import javax.swing.border.TitledBorder;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The panels of the game screen: the scoreboard, the word boxes, the input field, the
+ * word history and the letter circle, laid out and styled. Game builds one and wires
+ * its listeners to the parts; RenderBenchmark builds the same one to measure painting
+ * the real screen without a frame.
+ */
+class GameBoard {
+    static final Color MAIN_COLOR = new Color(108, 142, 191);
+    static final Color CORRECT_COLOR = new Color(109, 191, 137);
+    static final Color INCORRECT_COLOR = new Color(212, 90, 80);
+    static final Color ACCENT_COLOR = new Color(255, 111, 97);
+    static final Color BONUS_COLOR = new Color(218, 165, 32);
+    private static final Color LETTER_COLOR = new Color(70, 130, 180, 200);
+    private static final Color LETTER_HOVER_COLOR = new Color(100, 160, 210, 220);
+
+    // A line of the word history
+    static class WordAttempt {
+        String word;
+        boolean correct;
+        boolean bonus;
+        String note; // Near-miss feedback shown next to a rejected word
+
+        WordAttempt(String word, boolean correct) {
+            this(word, correct, false);
+        }
+
+        WordAttempt(String word, boolean correct, boolean bonus) {
+            this.word = word;
+            this.correct = correct;
+            this.bonus = bonus;
+        }
+        @Override
+        public String toString() {return note == null ? word : word + "  - " + note;}
+    }
+
+    final JPanel root;
+    final JButton backButton;
+    final JLabel levelLabel;
+    final JLabel pointsLabel;
+    final JLabel timeLabel;
+    final JLabel attemptsLabel;
+    final JPanel wordBoxesPanel;
+    final JTextField currentWordInput;
+    final JList<WordAttempt> wordHistoryList;
+    final LetterCircle circlePanel;
+
+    // inputPainted, if given, runs every time the input field has painted
+    GameBoard(ListModel<WordAttempt> history, Runnable inputPainted) {
+        root = new JPanel(new BorderLayout(20, 20));
+        root.setOpaque(false);
+        root.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        // Create top panel container
+        JPanel topPanelContainer = new JPanel(new BorderLayout(20, 20));
+        topPanelContainer.setOpaque(false);
+
+        // Create scoreboard panel
+        JPanel scoreboardPanel = new JPanel(new GridLayout(1, 4, 20, 0));
+        scoreboardPanel.setOpaque(false);
+
+        backButton = new JButton("Back");
+        backButton.setFont(new Font("Arial", Font.BOLD, 14));
+        backButton.setForeground(Color.WHITE);
+        backButton.setBackground(new Color(178, 34, 34));
+        backButton.setFocusPainted(false);
+        backButton.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        scoreboardPanel.add(backButton);
+
+        levelLabel = createStyledLabel("LEVEL 1", new Color(70, 130, 180));
+        pointsLabel = createStyledLabel("POINTS: 0", new Color(46, 139, 87));
+        timeLabel = createStyledLabel("TIME: 01:00", new Color(255, 140, 0));
+        attemptsLabel = createStyledLabel("HINTS: 0/3", new Color(178, 34, 34));
+        scoreboardPanel.add(levelLabel);
+        scoreboardPanel.add(pointsLabel);
+        scoreboardPanel.add(timeLabel);
+        scoreboardPanel.add(attemptsLabel);
+        topPanelContainer.add(scoreboardPanel, BorderLayout.CENTER);
+
+        // Create left side panel that contains both word boxes, input field, and history
+        JPanel leftPanel = new JPanel();
+        leftPanel.setLayout(new BoxLayout(leftPanel, BoxLayout.Y_AXIS));
+        leftPanel.setOpaque(false);
+        leftPanel.setPreferredSize(new Dimension(500, 10));
+
+        // Word boxes panel
+        wordBoxesPanel = new JPanel(new GridLayout(0, 1, 10, 10));
+        wordBoxesPanel.setOpaque(false);
+
+        // Create input field panel
+        JPanel wordInputPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        wordInputPanel.setOpaque(false);
+        currentWordInput = new JTextField() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                if (inputPainted != null) {
+                    inputPainted.run();
+                }
+            }
+        };
+        currentWordInput.setPreferredSize(new Dimension(500, 30));
+        currentWordInput.setFont(new Font("Arial", Font.BOLD, 18));
+        currentWordInput.setEditable(true);
+        wordInputPanel.add(currentWordInput);
+
+        wordHistoryList = new JList<>(history);
+        JPanel historyPanel = createHistoryPanel(wordHistoryList);
+
+        // Add components to left panel
+        leftPanel.add(wordBoxesPanel);
+        leftPanel.add(Box.createVerticalStrut(10));
+        leftPanel.add(wordInputPanel);
+        leftPanel.add(Box.createVerticalStrut(10));
+        leftPanel.add(historyPanel);
+
+        circlePanel = new LetterCircle(MAIN_COLOR, ACCENT_COLOR);
+
+        // Add components to main container
+        root.add(topPanelContainer, BorderLayout.NORTH);
+        root.add(leftPanel, BorderLayout.WEST);
+        root.add(circlePanel, BorderLayout.CENTER);
+    }
+
+    // Put the board on the background (the frame's content pane)
+    void install(Container contentPane) {
+        contentPane.setLayout(new BorderLayout(10, 10));
+        contentPane.add(root);
+    }
+
+    private static JLabel createStyledLabel(String text, Color color) {
+        JLabel label = new JLabel(text, SwingConstants.CENTER);
+        label.setFont(new Font("Arial", Font.BOLD, 18));
+        label.setForeground(color);
+        label.setBackground(new Color(255, 255, 255, 200));
+        label.setOpaque(true);
+        label.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(color, 2),
+            BorderFactory.createEmptyBorder(5, 10, 5, 10)
+        ));
+        return label;
+    }
+
+    private static JPanel createHistoryPanel(JList<WordAttempt> wordHistoryList) {
+        JPanel historyPanel = new JPanel(new BorderLayout(5, 5));
+        historyPanel.setOpaque(false);
+        historyPanel.setBorder(BorderFactory.createTitledBorder(
+            BorderFactory.createLineBorder(MAIN_COLOR),
+            "Word History",
+            TitledBorder.LEFT,
+            TitledBorder.TOP,
+            new Font("Arial", Font.BOLD, 14),
+            MAIN_COLOR
+        ));
+
+        wordHistoryList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(
+                JList<?> list, Object value, int index,
+                boolean isSelected, boolean cellHasFocus) {
+
+                JLabel label = (JLabel) super.getListCellRendererComponent(
+                    list, value, index, isSelected, cellHasFocus);
+
+                WordAttempt attempt = (WordAttempt) value;
+                label.setForeground(attempt.bonus ? BONUS_COLOR : attempt.correct ? CORRECT_COLOR : INCORRECT_COLOR);
+                label.setFont(new Font("Arial", Font.PLAIN, 14));
+                return label;
+            }
+        });
+
+        JScrollPane scrollPane = new JScrollPane(wordHistoryList);
+        scrollPane.setPreferredSize(new Dimension(200, 200));
+        historyPanel.add(scrollPane, BorderLayout.CENTER);
+        return historyPanel;
+    }
+
+    // A letter of the circle, styled; the caller adds what a press does
+    static JButton createLetterButton(String letter) {
+        JButton button = new JButton(letter);
+        button.setFont(new Font("Arial", Font.BOLD, 24));
+        button.setForeground(Color.WHITE);
+        button.setBackground(LETTER_COLOR);
+        button.setFocusPainted(false);
+        button.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(new Color(255, 255, 255, 100), 2),
+            BorderFactory.createEmptyBorder(5, 10, 5, 10)
+        ));
+
+        button.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseEntered(MouseEvent e) {
+                button.setBackground(LETTER_HOVER_COLOR);
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                button.setBackground(LETTER_COLOR);
+            }
+        });
+
+        return button;
+    }
+
+    // --- A level on the board ---
+
+    void showLevel(Collection<WordSlot> wordBoxes, List<JButton> letterButtons) {
+        for (WordSlot wordBox : wordBoxes) {
+            wordBoxesPanel.add((WordBox) wordBox);
+        }
+        for (JButton letterButton : letterButtons) {
+            letterButton.setSize(60, 60);
+            circlePanel.add(letterButton);
+        }
+        circlePanel.layoutLetters(letterButtons);
+    }
+
+    void clearLevel() {
+        circlePanel.removeAll();
+        wordBoxesPanel.removeAll();
+        currentWordInput.setText("");
+    }
+
+    // The scoreboard; levelTitle, if given, is shown instead of the level number
+    void showStats(GameSession session, String levelTitle) {
+        showLevelNumber(session, levelTitle);
+        showPoints(session);
+        showTime(session);
+        showHints(session);
+    }
+
+    void showLevelNumber(GameSession session, String levelTitle) {
+        levelLabel.setText(levelTitle != null ? levelTitle : "LEVEL: " + (session.getCurrentLevel() + 1));
+    }
+
+    void showPoints(GameSession session) {
+        pointsLabel.setText("POINTS: " + session.getScore());
+    }
+
+    void showTime(GameSession session) {
+        int minutes = session.getTimeRemaining() / 60;
+        int seconds = session.getTimeRemaining() % 60;
+        String timeString = String.format("%02d:%02d", minutes, seconds);
+        timeLabel.setText("TIME: " + timeString);
+    }
+
+    void showHints(GameSession session) {
+        attemptsLabel.setText("HINTS: " + session.getAttempts() + "/" + session.getRules().maxAttempts);
+    }
+}
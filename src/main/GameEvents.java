@@ -0,0 +1,99 @@
+package main;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for the game. Create, begin() and commit() them
+ * unconditionally; fields are only filled in when shouldCommit() says a recording
+ * wants them, so they cost next to nothing when JFR is off.
+ */
+public final class GameEvents {
+    private GameEvents() {
+    }
+
+    @Name("wordscapes.LevelLoad")
+    @Label("Level Load")
+    @Category({"Wordscapes", "Gameplay"})
+    @Description("A level being set up by Game.loadLevel")
+    public static class LevelLoad extends Event {
+        @Label("Level Index")
+        int levelIndex;
+
+        @Label("Letters")
+        String letters;
+
+        @Label("Word Count")
+        int wordCount;
+    }
+
+    @Name("wordscapes.WordCheck")
+    @Label("Word Check")
+    @Category({"Wordscapes", "Gameplay"})
+    @Description("A guess checked by GameSession.checkWord")
+    @StackTrace(false)
+    public static class WordCheck extends Event {
+        @Label("Word")
+        String word;
+
+        @Label("Result")
+        @Description("valid, bonus, prefix or rejected (GameSession.Outcome in lower case)")
+        String result;
+    }
+
+    @Name("wordscapes.Hint")
+    @Label("Hint Issued")
+    @Category({"Wordscapes", "Gameplay"})
+    public static class Hint extends Event {
+        @Label("Level")
+        int level;
+
+        @Label("Word")
+        String word;
+
+        @Label("Position")
+        int position;
+
+        @Label("Hints Used")
+        int hintsUsed;
+    }
+
+    @Name("wordscapes.WordBoxReveal")
+    @Label("Word Box Reveal")
+    @Category({"Wordscapes", "Rendering"})
+    @Description("Letters revealed in one WordBox in a single batch")
+    @StackTrace(false)
+    public static class WordBoxReveal extends Event {
+        @Label("Word Length")
+        int wordLength;
+
+        @Label("Letters Revealed")
+        int letters;
+
+        @Label("Hint")
+        boolean hint;
+    }
+
+    @Name("wordscapes.BackgroundFrame")
+    @Label("Background Frame")
+    @Category({"Wordscapes", "Rendering"})
+    @Description("One paint of WordscapesBackground")
+    @StackTrace(false)
+    public static class BackgroundFrame extends Event {
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+
+        @Label("Falling Letters")
+        int fallingLetters;
+
+        @Label("Image")
+        boolean image;
+    }
+}
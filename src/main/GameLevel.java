@@ -11,6 +11,7 @@ class GameLevel {
     private Set<String> validWords;
     private int level = 1;
     private List<GameLevel> levels;
+    private double difficulty = Double.NaN; // 0-100 from DifficultyModel, NaN until scored
 
     public GameLevel(String letters, Set<String> validWords) {
         this.letters = letters;
@@ -25,6 +26,18 @@ class GameLevel {
         return new HashSet<>(validWords);
     }
 
+    public double getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(double difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public boolean hasDifficulty() {
+        return !Double.isNaN(difficulty);
+    }
+
     public void initializeLevels() {
         levels = new ArrayList<>();
         // Level 1: Easy
@@ -46,8 +59,7 @@ class GameLevel {
             		"KALO",
             		"BOLA",
             		"KUBAL",
-            		"BOLA",
-            		"BULA")))); // 10 possible words
+            		"BULA")))); // 9 possible words
         // Level 3: Medium
         levels.add(new GameLevel("BALAYAN",
             new HashSet<>(Arrays.asList("LAYA",
@@ -56,7 +68,7 @@ class GameLevel {
             		"ALAY",
             		"BALA",
             		"BALAYAN",
-            		"LABA")))); // 6 possible words
+            		"LABA")))); // 7 possible words
 
         // Level 4: Harder
         levels.add(new GameLevel("KUSOGAN",
@@ -100,10 +112,9 @@ class GameLevel {
             		"GAHI",
             		"ANAG",
             		"SAPA",
-            		"GAPAS",
             		"HANAP",
             		"PUSA",
-            		"HAPI")))); // 21 possible words
+            		"HAPI")))); // 20 possible words
      // Level 7:(Expert)
         levels.add(new GameLevel("KINATIBUKANO",
             new HashSet<>(Arrays.asList("TINIBUKAN",
@@ -121,7 +132,7 @@ class GameLevel {
             		"TINA",
             		"ANOK",
             		"ANAK",
-            		"TIBU"))));
+            		"TIBU")))); // 16 possible words
 
 
     }
@@ -0,0 +1,88 @@
+package main;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The numbers of the game: how long a round lasts, what a hint costs, how many
+ * rounds there are and what a word is worth. DEFAULT is the game as it ships; the
+ * GameSimulator plays others to see what they would do to it.
+ *
+ * Rules are written as name=value pairs separated by commas, any not given keeping
+ * their default, e.g. "roundSeconds=45,maxAttempts=4".
+ */
+final class GameRules {
+    // No hint penalty: it never took effect in the shipped game, so turning it on is a balance change
+    static final GameRules DEFAULT = new GameRules(60, 0, 3, 10, 2, 4, 5, 5);
+
+    final int roundSeconds;       // Length of a round; a hint is given when it runs out
+    final int hintPenaltySeconds; // Taken off the round that follows a hint
+    final int maxAttempts;        // Rounds before the game is over
+    final int letterPoints;       // Points per letter of an answer
+    final int noHintMultiplier;   // Answers found before any hint score this many times over
+    final int longWordLength;     // Letters beyond this earn longWordPoints each
+    final int longWordPoints;
+    final int bonusLetterPoints;  // Points per letter of a bonus word
+
+    GameRules(int roundSeconds, int hintPenaltySeconds, int maxAttempts, int letterPoints, int noHintMultiplier,
+              int longWordLength, int longWordPoints, int bonusLetterPoints) {
+        if (roundSeconds < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("a game needs at least one round of at least a second");
+        }
+        if (hintPenaltySeconds < 0 || hintPenaltySeconds >= roundSeconds) {
+            throw new IllegalArgumentException("the hint penalty must be shorter than a round");
+        }
+        this.roundSeconds = roundSeconds;
+        this.hintPenaltySeconds = hintPenaltySeconds;
+        this.maxAttempts = maxAttempts;
+        this.letterPoints = letterPoints;
+        this.noHintMultiplier = noHintMultiplier;
+        this.longWordLength = longWordLength;
+        this.longWordPoints = longWordPoints;
+        this.bonusLetterPoints = bonusLetterPoints;
+    }
+
+    // "default" or name=value pairs over the defaults
+    static GameRules parse(String spec) {
+        Map<String, Integer> values = DEFAULT.toMap();
+        if (!spec.isBlank() && !spec.equals("default")) {
+            for (String pair : spec.split(",")) {
+                String[] parts = pair.split("=", 2);
+                String name = parts[0].trim();
+                if (parts.length != 2 || !values.containsKey(name)) {
+                    throw new IllegalArgumentException("unknown rule '" + pair.trim() + "', expected one of " + values.keySet());
+                }
+                values.put(name, Integer.parseInt(parts[1].trim()));
+            }
+        }
+        return new GameRules(values.get("roundSeconds"), values.get("hintPenaltySeconds"), values.get("maxAttempts"),
+            values.get("letterPoints"), values.get("noHintMultiplier"), values.get("longWordLength"),
+            values.get("longWordPoints"), values.get("bonusLetterPoints"));
+    }
+
+    private Map<String, Integer> toMap() {
+        Map<String, Integer> values = new LinkedHashMap<>();
+        values.put("roundSeconds", roundSeconds);
+        values.put("hintPenaltySeconds", hintPenaltySeconds);
+        values.put("maxAttempts", maxAttempts);
+        values.put("letterPoints", letterPoints);
+        values.put("noHintMultiplier", noHintMultiplier);
+        values.put("longWordLength", longWordLength);
+        values.put("longWordPoints", longWordPoints);
+        values.put("bonusLetterPoints", bonusLetterPoints);
+        return values;
+    }
+
+    // Only the rules that differ from the defaults
+    @Override
+    public String toString() {
+        StringBuilder changed = new StringBuilder();
+        Map<String, Integer> defaults = DEFAULT.toMap();
+        toMap().forEach((name, value) -> {
+            if (!value.equals(defaults.get(name))) {
+                changed.append(changed.length() > 0 ? "," : "").append(name).append('=').append(value);
+            }
+        });
+        return changed.length() > 0 ? changed.toString() : "default";
+    }
+}
@@ -0,0 +1,483 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The rules of one game without the frame around it: the word being spelled, the
+ * answers still to find, score, timer and hints. Game drives a session from the letter
+ * buttons, the swipe and its one-second timer and shows what comes back; the Replayer
+ * drives one from a journal.
+ *
+ * A session is a pure function of its inputs. The letters are shuffled from the
+ * session seed, and the dictionary only changes when switched explicitly, which a live
+ * session does once the background load has finished. Every input, and every such
+ * switch, is written to the InputJournal before it is applied.
+ *
+ * What a level needs before play (its filters, near-miss index and hint plan) is
+ * worked out once and kept in a map of Prepared levels, which sessions playing the
+ * same levels can share; nothing in it changes once built.
+ */
+class GameSession {
+    private static final LatencyHistogram CHECK_WORD_TIME = Metrics.histogram("game.checkWord");
+    private static final LongAdder VALID_WORDS = Metrics.counter("words.valid");
+    private static final LongAdder INVALID_WORDS = Metrics.counter("words.invalid");
+    private static final LongAdder BONUS_WORDS = Metrics.counter("words.bonus");
+    private static final LongAdder NEAR_MISSES = Metrics.counter("words.nearMiss");
+
+    enum Outcome { VALID, BONUS, PREFIX, REJECTED }
+
+    enum Tick { RUNNING, HINT, GAME_OVER }
+
+    // What checking a word did
+    static class Check {
+        final String word;
+        final Outcome outcome;
+        final boolean filled;        // A valid word that filled its box and scored
+        final boolean levelComplete;
+        final String note;           // Near-miss feedback for a rejected word
+
+        Check(String word, Outcome outcome, boolean filled, boolean levelComplete, String note) {
+            this.word = word;
+            this.outcome = outcome;
+            this.filled = filled;
+            this.levelComplete = levelComplete;
+            this.note = note;
+        }
+    }
+
+    // The read-only part of a level, built for one dictionary
+    static class Prepared {
+        final Dictionary dictionary;
+        final List<String> words;        // All answers, sorted
+        final Set<String> wordSet;
+        final int[] letterCounts;
+        final BloomFilter wordFilter;    // Answers of the level
+        final BloomFilter prefixFilter;  // Every prefix of three or more letters of the answers
+        final NearMissIndex nearMisses;  // Answers by edit distance, for "so close" feedback
+        final HintPlanner hintPlan;
+
+        Prepared(GameLevel level, Dictionary dictionary) {
+            this.dictionary = dictionary;
+            // Sorted, so the boxes and indexes come out the same however the level was read
+            List<String> sorted = new ArrayList<>(level.getValidWords());
+            Collections.sort(sorted);
+            words = Collections.unmodifiableList(sorted);
+            wordSet = Collections.unmodifiableSet(new HashSet<>(sorted));
+            letterCounts = LetterCounts.of(level.getLetters());
+
+            wordFilter = new BloomFilter(words.size(), 0.01);
+            int prefixCount = 0;
+            for (String word : words) {
+                wordFilter.add(word);
+                prefixCount += Math.max(0, word.length() - 2);
+            }
+            prefixFilter = new BloomFilter(prefixCount, 0.01);
+            for (String word : words) {
+                for (int end = 3; end <= word.length(); end++) {
+                    prefixFilter.add(word.subSequence(0, end));
+                }
+            }
+            nearMisses = new NearMissIndex(words);
+            hintPlan = new HintPlanner(words, level.getLetters(), dictionary, WordFrequencies.shared());
+        }
+    }
+
+    private final List<GameLevel> levels;
+    private final Map<Integer, Prepared> preparedLevels;
+    private final Function<String, WordSlot> slotFactory;
+    private final GameRules rules;
+    private final long seed;
+    private final Random random;
+    private final boolean bonusWordsEnabled;
+    private final boolean followSharedDictionary; // False when replaying, where the journal switches it
+    private final InputJournal journal;           // Null when not recording
+    private final GameAI gameAI = new GameAI();
+    private Dictionary dictionary = new Dictionary(List.of());
+
+    private int currentLevel;
+    private String currentWord = "";
+    private int score;
+    int timeRemaining; // GameAI takes time off for a hint
+    int attempts;
+
+    private Prepared level;
+    private Set<String> validWords = new HashSet<>();
+    private final Set<String> foundBonusWords = new LinkedHashSet<>();
+    private final Map<String, WordSlot> wordBoxes = new HashMap<>();
+    private final Map<Integer, WordSlot> wordBoxesByLength = new TreeMap<>();
+    private final List<Character> letterOrder = new ArrayList<>();
+
+    // A session shown on screen, with WordBoxes
+    GameSession(List<GameLevel> levels, long seed, boolean bonusWordsEnabled, boolean followSharedDictionary,
+                InputJournal journal) {
+        this(levels, new HashMap<>(), WordBox::new, GameRules.DEFAULT, seed, bonusWordsEnabled, followSharedDictionary,
+            journal);
+    }
+
+    GameSession(List<GameLevel> levels, Map<Integer, Prepared> preparedLevels, Function<String, WordSlot> slotFactory,
+                GameRules rules, long seed, boolean bonusWordsEnabled, boolean followSharedDictionary,
+                InputJournal journal) {
+        this.levels = levels;
+        this.preparedLevels = preparedLevels;
+        this.slotFactory = slotFactory;
+        this.rules = rules;
+        this.timeRemaining = rules.roundSeconds;
+        this.seed = seed;
+        this.random = new Random(seed);
+        this.bonusWordsEnabled = bonusWordsEnabled;
+        this.followSharedDictionary = followSharedDictionary;
+        this.journal = journal;
+        gameAI.setSession(this);
+    }
+
+    // Pick up the shared dictionary once its background load has finished
+    private void syncDictionary() {
+        if (followSharedDictionary && Dictionary.shared() != dictionary) {
+            useDictionary(Dictionary.shared());
+        }
+    }
+
+    void useDictionary(Dictionary dictionary) {
+        if (journal != null) {
+            journal.dictionary(dictionary.size());
+        }
+        this.dictionary = dictionary;
+    }
+
+    // Start the level; newGame also takes the score back to zero
+    void loadLevel(int levelIndex, boolean newGame) {
+        syncDictionary();
+        if (journal != null) {
+            journal.level(levelIndex, newGame);
+        }
+        if (newGame) {
+            score = 0;
+        }
+        currentLevel = levelIndex;
+        level = prepare(levelIndex);
+        validWords = new HashSet<>(level.words);
+        foundBonusWords.clear();
+        currentWord = "";
+        createWordBoxes();
+        gameAI.initializeLevel(validWords, level.hintPlan, levelIndex + 1, wordBoxesByLength);
+
+        letterOrder.clear();
+        for (char c : levels.get(levelIndex).getLetters().toCharArray()) {
+            letterOrder.add(c);
+        }
+        Collections.shuffle(letterOrder, random);
+
+        attempts = 0;
+        timeRemaining = rules.roundSeconds;
+    }
+
+    // The prepared level, built again if it was prepared with another dictionary
+    private Prepared prepare(int levelIndex) {
+        return preparedLevels.compute(levelIndex, (index, prepared) ->
+            prepared != null && prepared.dictionary == dictionary ? prepared : new Prepared(levels.get(index), dictionary));
+    }
+
+    // One box per word length, showing the first answer of that length
+    private void createWordBoxes() {
+        wordBoxes.clear();
+        wordBoxesByLength.clear();
+        for (String word : level.words) {
+            WordSlot wordBox = wordBoxesByLength.computeIfAbsent(word.length(), length -> slotFactory.apply(word));
+            wordBoxes.put(word, wordBox);
+        }
+    }
+
+    // A tapped letter; three or more letters are checked as they are typed
+    Check tapLetter(char letter) {
+        syncDictionary();
+        if (journal != null) {
+            journal.tap(letter);
+        }
+        currentWord += letter;
+        return currentWord.length() >= 3 ? checkWord(false) : null;
+    }
+
+    void startSwipe() {
+        syncDictionary();
+        if (journal != null) {
+            journal.swipeStart();
+        }
+        currentWord = "";
+    }
+
+    void swipeLetter(char letter) {
+        if (journal != null) {
+            journal.swipeLetter(letter);
+        }
+        currentWord += letter;
+    }
+
+    // The swiped word is checked when the pointer is released
+    Check endSwipe() {
+        syncDictionary();
+        if (journal != null) {
+            journal.swipeEnd();
+        }
+        Check check = checkWord(true);
+        currentWord = "";
+        return check;
+    }
+
+    // complete is true when the player has finished the word (a swipe ended); while tapping,
+    // a bonus word that is also the start of an answer is left for the player to extend
+    private Check checkWord(boolean complete) {
+        if (currentWord.length() < 3) {
+            return null;
+        }
+        long start = System.nanoTime();
+        GameEvents.WordCheck event = new GameEvents.WordCheck();
+        event.begin();
+        String checkedWord = currentWord;
+        Check check;
+        // The filters reject most impossible guesses before the word set and prefix scan
+        boolean isValidWord = level.wordFilter.mightContain(currentWord) && validWords.contains(currentWord);
+        (isValidWord ? VALID_WORDS : INVALID_WORDS).increment();
+
+        if (isValidWord) {
+            boolean filled = false;
+            boolean levelComplete = false;
+            WordSlot wordBox = wordBoxes.get(currentWord);
+            if (wordBox != null && !wordBox.isFilled()) {
+                wordBox.fillWord(currentWord);
+                wordBox.setFilled(true);
+                score += gameAI.calculateScore(currentWord, gameAI.getHintsUsed() > 0);
+                validWords.remove(currentWord);
+                gameAI.wordSolved(currentWord);
+                currentWord = "";
+                filled = true;
+                levelComplete = isLevelComplete();
+            }
+            check = new Check(checkedWord, Outcome.VALID, filled, levelComplete, null);
+        } else {
+            boolean isValidPrefix = false;
+            if (level.prefixFilter.mightContain(currentWord)) {
+                for (String word : validWords) {
+                    if (word.startsWith(currentWord)) {
+                        isValidPrefix = true;
+                        break;
+                    }
+                }
+            }
+            if ((complete || !isValidPrefix) && isBonusWord(currentWord)) {
+                foundBonusWords.add(currentWord);
+                BONUS_WORDS.increment();
+                score += gameAI.calculateBonusScore(currentWord);
+                currentWord = "";
+                check = new Check(checkedWord, Outcome.BONUS, false, false, null);
+            } else if (isValidPrefix) {
+                check = new Check(checkedWord, Outcome.PREFIX, false, false, null);
+            } else {
+                check = new Check(checkedWord, Outcome.REJECTED, false, false, nearMissNote(currentWord));
+                currentWord = "";
+            }
+        }
+        CHECK_WORD_TIME.recordSince(start);
+        if (journal != null) {
+            journal.checked(check.outcome, score);
+        }
+
+        if (event.shouldCommit()) {
+            event.word = checkedWord;
+            event.result = check.outcome.name().toLowerCase();
+            event.commit();
+        }
+        return check;
+    }
+
+    // A dictionary word made from the level letters that is not an answer and not found yet
+    private boolean isBonusWord(String word) {
+        return bonusWordsEnabled
+            && !level.wordSet.contains(word)
+            && !foundBonusWords.contains(word)
+            && dictionary.isBonusWord(word, level.letterCounts);
+    }
+
+    // "so close!" when an unsolved answer is one or two edits away (without giving it away),
+    // otherwise "did you mean" a bonus word that is one edit away
+    private String nearMissNote(String word) {
+        for (NearMissIndex.Match match : level.nearMisses.query(word, 2)) {
+            if (validWords.contains(match.getWord())) {
+                NEAR_MISSES.increment();
+                return match.getDistance() == 1 ? "so close!" : "close!";
+            }
+        }
+
+        if (bonusWordsEnabled && !dictionary.isEmpty()) {
+            for (NearMissIndex.Match match : dictionary.getNearMissIndex().query(word, 1)) {
+                if (isBonusWord(match.getWord())) {
+                    NEAR_MISSES.increment();
+                    return "did you mean " + match.getWord() + "?";
+                }
+            }
+        }
+        return null;
+    }
+
+    // One second of the round; when it runs out the player gets a hint, or loses after the last one
+    Tick tick() {
+        if (journal != null) {
+            journal.tick();
+        }
+        timeRemaining--;
+        if (timeRemaining > 0) {
+            return Tick.RUNNING;
+        }
+        attempts++;
+        if (attempts >= rules.maxAttempts) {
+            return Tick.GAME_OVER;
+        }
+        timeRemaining = rules.roundSeconds;
+        gameAI.provideHint(); // Takes its penalty off the new round
+        return Tick.HINT;
+    }
+
+    GameSnapshot toSnapshot() {
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.currentLevel = currentLevel;
+        snapshot.score = score;
+        snapshot.timeRemaining = timeRemaining;
+        snapshot.attempts = attempts;
+        snapshot.hintsUsed = gameAI.getHintsUsed();
+        snapshot.planCursor = gameAI.getPlanCursor();
+        snapshot.letters = levels.get(currentLevel).getLetters();
+        snapshot.words = new ArrayList<>(level.words);
+        for (int i = 0; i < snapshot.words.size(); i++) {
+            if (!validWords.contains(snapshot.words.get(i))) {
+                snapshot.solved.set(i);
+            }
+        }
+        snapshot.hintProgress = gameAI.getHintProgress(snapshot.words);
+        for (Map.Entry<Integer, WordSlot> box : wordBoxesByLength.entrySet()) {
+            if (!box.getValue().isFilled()) {
+                snapshot.revealedLetters.put(box.getKey(), box.getValue().getShownLetters());
+            }
+        }
+        snapshot.bonusWords.addAll(foundBonusWords);
+        return snapshot;
+    }
+
+    // Put the board back the way it was saved; returns false, keeping only the score,
+    // if the snapshot was taken on another level
+    boolean restore(GameSnapshot snapshot) {
+        if (journal != null) {
+            journal.resume(snapshot.encode());
+        }
+        score = snapshot.score;
+        if (!levels.get(currentLevel).getLetters().equals(snapshot.letters) || !level.words.equals(snapshot.words)) {
+            return false;
+        }
+
+        for (int i = snapshot.solved.nextSetBit(0); i >= 0; i = snapshot.solved.nextSetBit(i + 1)) {
+            String word = level.words.get(i);
+            validWords.remove(word);
+            WordSlot wordBox = wordBoxes.get(word);
+            if (wordBox != null) {
+                wordBox.fillWord(word);
+                wordBox.setFilled(true);
+            }
+        }
+        for (Map.Entry<Integer, char[]> box : snapshot.revealedLetters.entrySet()) {
+            WordSlot wordBox = wordBoxesByLength.get(box.getKey());
+            char[] shown = box.getValue();
+            for (int position = 0; wordBox != null && !wordBox.isFilled() && position < shown.length; position++) {
+                if (shown[position] != 0) {
+                    wordBox.revealLetter(position, shown[position]);
+                }
+            }
+        }
+        foundBonusWords.addAll(snapshot.bonusWords);
+        gameAI.restoreHints(level.words, snapshot.hintProgress, snapshot.hintsUsed, snapshot.planCursor);
+
+        timeRemaining = snapshot.timeRemaining;
+        attempts = snapshot.attempts;
+        return true;
+    }
+
+    GameRules getRules() {
+        return rules;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    int getLevelCount() {
+        return levels.size();
+    }
+
+    int getCurrentLevel() {
+        return currentLevel;
+    }
+
+    String getCurrentWord() {
+        return currentWord;
+    }
+
+    int getScore() {
+        return score;
+    }
+
+    int getTimeRemaining() {
+        return timeRemaining;
+    }
+
+    // Every box filled: the level is done, though a restored one may not have moved on yet
+    boolean isLevelComplete() {
+        return wordBoxesByLength.values().stream().allMatch(WordSlot::isFilled);
+    }
+
+    int getAttempts() {
+        return attempts;
+    }
+
+    int getHintsUsed() {
+        return gameAI.getHintsUsed();
+    }
+
+    // Letters in the order they go round the circle
+    List<Character> getLetterOrder() {
+        return Collections.unmodifiableList(letterOrder);
+    }
+
+    // One box per word length, shortest first; WordBoxes for a session shown on screen
+    Collection<WordSlot> getWordBoxes() {
+        return Collections.unmodifiableCollection(wordBoxesByLength.values());
+    }
+
+    // Every answer of the level, sorted
+    List<String> getAnswers() {
+        return level.words;
+    }
+
+    // Answers found so far, sorted
+    List<String> getSolvedWords() {
+        List<String> solved = new ArrayList<>();
+        for (String word : level.words) {
+            if (!validWords.contains(word)) {
+                solved.add(word);
+            }
+        }
+        return solved;
+    }
+
+    List<String> getBonusWords() {
+        return new ArrayList<>(foundBonusWords);
+    }
+}
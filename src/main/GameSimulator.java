@@ -0,0 +1,320 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays synthetic games against the rules to see what they do to a game: how many
+ * players finish a level, what they score, how many hints they need. Each session is
+ * one level played from a new game until it is complete or over, by a PlayerModel that
+ * guesses some words a second, finds an answer with a chance that falls with its
+ * length and rises with the letters a hint has shown, and otherwise swipes letters
+ * that are usually wrong. Sessions run headless through GameSession, one worker per
+ * core, each reusing its session; the levels' prepared data is shared.
+ *
+ * Several rule sets can be given, separated by ';', and each is played by every model
+ * asked for, from the same seeds, so the reports can be compared line by line.
+ *
+ *     java main.GameSimulator [sessions] [model|all] [rules;rules...] [threads]
+ */
+public class GameSimulator {
+    private static final int CHUNK = 1000;
+    private static final int MAX_SECONDS = 3600; // A session that goes on this long is stopped
+
+    // How a simulated player plays
+    static class PlayerModel {
+        final String name;
+        final double guessesPerSecond;
+        final double skill;          // Chance of finding a three-letter answer with a guess
+        final double lengthFactor;   // Skill is multiplied by this for every letter over three
+        final double hintBoost;      // Skill grows by this share for every letter of the word shown
+
+        PlayerModel(String name, double guessesPerSecond, double skill, double lengthFactor, double hintBoost) {
+            this.name = name;
+            this.guessesPerSecond = guessesPerSecond;
+            this.skill = skill;
+            this.lengthFactor = lengthFactor;
+            this.hintBoost = hintBoost;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%.2f guesses/s, skill %.2f, x%.2f a letter, hint boost %.1f)",
+                name, guessesPerSecond, skill, lengthFactor, hintBoost);
+        }
+    }
+
+    static final Map<String, PlayerModel> MODELS = new LinkedHashMap<>();
+
+    static {
+        MODELS.put("casual", new PlayerModel("casual", 0.15, 0.25, 0.55, 2.0));
+        MODELS.put("regular", new PlayerModel("regular", 0.3, 0.4, 0.65, 2.0));
+        MODELS.put("expert", new PlayerModel("expert", 0.6, 0.6, 0.8, 1.5));
+    }
+
+    // What every session of a run ended with, by session number
+    static class Results {
+        final int[] scores;
+        final byte[] hints;
+        final short[] seconds;
+        final boolean[] completed;
+        final int[] levels;
+        double elapsedSeconds;
+
+        Results(int sessions) {
+            scores = new int[sessions];
+            hints = new byte[sessions];
+            seconds = new short[sessions];
+            completed = new boolean[sessions];
+            levels = new int[sessions];
+        }
+    }
+
+    private final List<GameLevel> levels;
+    private final Map<Integer, GameSession.Prepared> preparedLevels = new ConcurrentHashMap<>();
+    private final int threads;
+    private final long seed;
+
+    public GameSimulator(List<GameLevel> levels, int threads, long seed) {
+        this.levels = levels;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    // Play the sessions on all threads; session i plays level i % levels
+    Results run(GameRules rules, PlayerModel model, int sessions) throws InterruptedException {
+        Results results = new Results(sessions);
+        AtomicInteger nextChunk = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                GameSession session = new GameSession(levels, preparedLevels, PlainWordSlot::new, rules, seed,
+                    false, false, null);
+                Player player = new Player(session, model);
+                int from;
+                while ((from = nextChunk.getAndAdd(CHUNK)) < sessions) {
+                    for (int i = from; i < Math.min(from + CHUNK, sessions); i++) {
+                        player.play(i % levels.size(), new SplittableRandom(seed ^ (i * 0x9E3779B97F4A7C15L)));
+                        results.scores[i] = session.getScore();
+                        results.hints[i] = (byte) Math.min(Byte.MAX_VALUE, session.getHintsUsed());
+                        results.seconds[i] = (short) player.seconds;
+                        results.completed[i] = player.completed;
+                        results.levels[i] = i % levels.size();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.DAYS);
+        results.elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        return results;
+    }
+
+    // One worker's player and the session it plays in
+    private static class Player {
+        private final GameSession session;
+        private final PlayerModel model;
+        private final List<String> unsolved = new ArrayList<>();
+        private final WordSlot[] slotByLength = new WordSlot[64];
+        private SplittableRandom random;
+        private char[] letters;
+        int seconds;
+        boolean completed;
+
+        Player(GameSession session, PlayerModel model) {
+            this.session = session;
+            this.model = model;
+        }
+
+        void play(int levelIndex, SplittableRandom random) {
+            this.random = random;
+            session.loadLevel(levelIndex, true);
+            Arrays.fill(slotByLength, null);
+            for (WordSlot slot : session.getWordBoxes()) {
+                slotByLength[slot.getShownLetters().length] = slot;
+            }
+            letters = new char[session.getLetterOrder().size()];
+            for (int i = 0; i < letters.length; i++) {
+                letters[i] = session.getLetterOrder().get(i);
+            }
+            updateUnsolved();
+            seconds = 0;
+            completed = false;
+
+            while (seconds < MAX_SECONDS) {
+                double guesses = model.guessesPerSecond;
+                for (; guesses >= 1 || random.nextDouble() < guesses; guesses--) {
+                    if (guess()) {
+                        completed = true;
+                        return;
+                    }
+                }
+                seconds++;
+                GameSession.Tick tick = session.tick();
+                if (tick == GameSession.Tick.GAME_OVER) {
+                    return;
+                }
+                if (tick == GameSession.Tick.HINT) {
+                    updateUnsolved();
+                }
+            }
+        }
+
+        // Answers whose box is still open; a box takes one answer of its length
+        private void updateUnsolved() {
+            unsolved.clear();
+            for (String word : session.getAnswers()) {
+                WordSlot slot = slotByLength[word.length()];
+                if (slot != null && !slot.isFilled()) {
+                    unsolved.add(word);
+                }
+            }
+        }
+
+        // One swipe; true when it completed the level
+        private boolean guess() {
+            String word = null;
+            int offset = unsolved.isEmpty() ? 0 : random.nextInt(unsolved.size());
+            for (int i = 0; i < unsolved.size() && word == null; i++) {
+                String candidate = unsolved.get((offset + i) % unsolved.size());
+                if (random.nextDouble() < chance(candidate)) {
+                    word = candidate;
+                }
+            }
+            if (word == null) {
+                word = wrongGuess();
+            }
+
+            session.startSwipe();
+            for (int i = 0; i < word.length(); i++) {
+                session.swipeLetter(word.charAt(i));
+            }
+            GameSession.Check check = session.endSwipe();
+            if (check != null && check.filled) {
+                updateUnsolved();
+            }
+            return check != null && check.levelComplete;
+        }
+
+        private double chance(String word) {
+            WordSlot slot = slotByLength[word.length()];
+            int shown = 0;
+            for (int i = 0; i < word.length(); i++) {
+                if (slot.isLetterRevealed(i)) {
+                    shown++;
+                }
+            }
+            double chance = model.skill * Math.pow(model.lengthFactor, word.length() - 3);
+            return Math.min(1, chance * (1 + model.hintBoost * shown / word.length()));
+        }
+
+        // Three or more of the letters in a random order
+        private String wrongGuess() {
+            int length = 3 + random.nextInt(Math.max(1, letters.length - 2));
+            char[] word = letters.clone();
+            for (int i = 0; i < length; i++) {
+                int j = i + random.nextInt(word.length - i);
+                char c = word[i];
+                word[i] = word[j];
+                word[j] = c;
+            }
+            return new String(word, 0, length);
+        }
+    }
+
+    static void report(GameRules rules, PlayerModel model, Results results, int levelCount) {
+        int sessions = results.scores.length;
+        int completed = 0;
+        int[] hintCounts = new int[Byte.MAX_VALUE + 1];
+        int[] levelSessions = new int[levelCount];
+        int[] levelCompleted = new int[levelCount];
+        int[] completedSeconds = new int[sessions];
+        int completedCount = 0;
+        for (int i = 0; i < sessions; i++) {
+            hintCounts[results.hints[i]]++;
+            levelSessions[results.levels[i]]++;
+            if (results.completed[i]) {
+                completed++;
+                levelCompleted[results.levels[i]]++;
+                completedSeconds[completedCount++] = results.seconds[i];
+            }
+        }
+        int[] scores = results.scores.clone();
+        Arrays.sort(scores);
+        completedSeconds = Arrays.copyOf(completedSeconds, completedCount);
+        Arrays.sort(completedSeconds);
+
+        System.out.printf("rules %s, %s%n", rules, model);
+        System.out.printf("  %d sessions in %.1f s (%.0f/s)%n",
+            sessions, results.elapsedSeconds, sessions / results.elapsedSeconds);
+        System.out.printf("  completed %.1f%%, in p10 %d s, p50 %d s, p90 %d s%n", 100.0 * completed / sessions,
+            percentile(completedSeconds, 10), percentile(completedSeconds, 50), percentile(completedSeconds, 90));
+        System.out.printf("  score p10 %d, p50 %d, p90 %d, p99 %d, mean %.1f%n", percentile(scores, 10),
+            percentile(scores, 50), percentile(scores, 90), percentile(scores, 99),
+            Arrays.stream(scores).average().orElse(0));
+        StringBuilder hints = new StringBuilder("  hints used");
+        for (int h = 0; h < hintCounts.length; h++) {
+            if (hintCounts[h] > 0) {
+                hints.append(String.format("  %d: %.1f%%", h, 100.0 * hintCounts[h] / sessions));
+            }
+        }
+        System.out.println(hints);
+        StringBuilder byLevel = new StringBuilder("  completed by level");
+        for (int l = 0; l < levelCount; l++) {
+            if (levelSessions[l] > 0) {
+                byLevel.append(String.format("  %d: %.0f%%", l + 1, 100.0 * levelCompleted[l] / levelSessions[l]));
+            }
+        }
+        System.out.println(byLevel);
+    }
+
+    private static int percentile(int[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile / 100 * sorted.length) - 1)];
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String modelName = args.length > 1 ? args[1] : "all";
+        String ruleSpecs = args.length > 2 ? args[2] : "default";
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        List<PlayerModel> models = new ArrayList<>();
+        if (modelName.equals("all")) {
+            models.addAll(MODELS.values());
+        } else if (MODELS.containsKey(modelName)) {
+            models.add(MODELS.get(modelName));
+        } else {
+            System.out.println("Unknown player model " + modelName + ", expected all or one of " + MODELS.keySet());
+            return;
+        }
+        List<GameRules> ruleSets = new ArrayList<>();
+        for (String spec : ruleSpecs.split(";")) {
+            ruleSets.add(GameRules.parse(spec.trim()));
+        }
+
+        GameLevel builtIn = new GameLevel("", new HashSet<>());
+        builtIn.initializeLevels();
+        List<GameLevel> levels = builtIn.getLevels();
+        GameSimulator simulator = new GameSimulator(levels, threads, 1);
+        System.out.printf("%d sessions per rule set and model on %d threads, %d levels%n", sessions, threads, levels.size());
+        for (GameRules rules : ruleSets) {
+            for (PlayerModel model : models) {
+                report(rules, model, simulator.run(rules, model, sessions), levels.size());
+            }
+        }
+    }
+}
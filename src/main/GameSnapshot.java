@@ -0,0 +1,243 @@
+package main;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Everything needed to put an interrupted game back on screen: the level, score,
+ * timer, which answers are solved, how far each word has been hinted and the hint
+ * letters showing in the unsolved boxes.
+ *
+ * Snapshots are encoded on the EDT (a few hundred bytes) and written by a background
+ * thread. Saves that arrive while a write is in progress are coalesced into one write
+ * of the newest state, and every write goes to a temporary file that is synced and
+ * then renamed over the old one, so a power cut leaves either the old or the new
+ * snapshot. The file is read from -Dwordscapes.snapshot (default save/snapshot.bin).
+ */
+public class GameSnapshot {
+    private static final int MAGIC = 0x57534156; // "WSAV"
+    private static final int VERSION = 1;
+    private static final String DEFAULT_PATH = "save/snapshot.bin";
+    private static final LatencyHistogram WRITE_TIME = Metrics.histogram("snapshot.write");
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "snapshot-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final AtomicReference<byte[]> pending = new AtomicReference<>();
+
+    // Filled in by Game
+    boolean builtInLevels;     // False for a level that was passed in, like the daily puzzle
+    String levelTitle;         // Null for the built-in levels
+    int currentLevel;
+    int score;
+    int timeRemaining;
+    int attempts;
+    int hintsUsed;
+    int planCursor;
+    String letters;
+    List<String> words = new ArrayList<>();          // All answers, sorted; the other arrays follow this order
+    BitSet solved = new BitSet();
+    int[] hintProgress = new int[0];
+    Map<Integer, char[]> revealedLetters = new TreeMap<>(); // Letters showing in unsolved boxes, by length; 0 = empty
+    List<String> bonusWords = new ArrayList<>();
+
+    public static Path path() {
+        return Paths.get(System.getProperty("wordscapes.snapshot", DEFAULT_PATH));
+    }
+
+    // The level this snapshot was taken in, for games that did not use the built-in levels
+    GameLevel toLevel() {
+        return new GameLevel(letters, new LinkedHashSet<>(words));
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeBoolean(builtInLevels);
+            out.writeUTF(levelTitle != null ? levelTitle : "");
+            out.writeInt(currentLevel);
+            out.writeInt(score);
+            out.writeShort(timeRemaining);
+            out.writeByte(attempts);
+            out.writeShort(hintsUsed);
+            out.writeShort(planCursor);
+
+            out.writeUTF(letters);
+            out.writeShort(words.size());
+            for (String word : words) {
+                out.writeUTF(word);
+            }
+            long[] solvedBits = solved.toLongArray();
+            out.writeByte(solvedBits.length);
+            for (long bits : solvedBits) {
+                out.writeLong(bits);
+            }
+            for (int i = 0; i < words.size(); i++) {
+                out.writeByte(i < hintProgress.length ? hintProgress[i] : 0);
+            }
+
+            out.writeByte(revealedLetters.size());
+            for (Map.Entry<Integer, char[]> box : revealedLetters.entrySet()) {
+                char[] shown = box.getValue();
+                int mask = 0;
+                for (int i = 0; i < shown.length; i++) {
+                    if (shown[i] != 0) {
+                        mask |= 1 << i;
+                    }
+                }
+                out.writeByte(box.getKey());
+                out.writeInt(mask);
+                for (char c : shown) {
+                    if (c != 0) {
+                        out.writeByte(c);
+                    }
+                }
+            }
+
+            out.writeShort(bonusWords.size());
+            for (String word : bonusWords) {
+                out.writeUTF(word);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Cannot happen writing to memory
+        }
+        return bytes.toByteArray();
+    }
+
+    static GameSnapshot decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a game snapshot");
+        }
+        int version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("unsupported snapshot version " + version);
+        }
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.builtInLevels = in.readBoolean();
+        String title = in.readUTF();
+        snapshot.levelTitle = title.isEmpty() ? null : title;
+        snapshot.currentLevel = in.readInt();
+        snapshot.score = in.readInt();
+        snapshot.timeRemaining = in.readShort();
+        snapshot.attempts = in.readByte();
+        snapshot.hintsUsed = in.readShort();
+        snapshot.planCursor = in.readShort();
+
+        snapshot.letters = in.readUTF();
+        int wordCount = in.readShort();
+        for (int i = 0; i < wordCount; i++) {
+            snapshot.words.add(in.readUTF());
+        }
+        long[] solvedBits = new long[in.readByte()];
+        for (int i = 0; i < solvedBits.length; i++) {
+            solvedBits[i] = in.readLong();
+        }
+        snapshot.solved = BitSet.valueOf(solvedBits);
+        snapshot.hintProgress = new int[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            snapshot.hintProgress[i] = in.readUnsignedByte();
+        }
+
+        int boxes = in.readByte();
+        for (int b = 0; b < boxes; b++) {
+            int length = in.readByte();
+            int mask = in.readInt();
+            char[] shown = new char[length];
+            for (int i = 0; i < length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    shown[i] = (char) in.readUnsignedByte();
+                }
+            }
+            snapshot.revealedLetters.put(length, shown);
+        }
+
+        int bonusCount = in.readShort();
+        for (int i = 0; i < bonusCount; i++) {
+            snapshot.bonusWords.add(in.readUTF());
+        }
+        return snapshot;
+    }
+
+    // Queue the snapshot for writing; only the newest one queued is written
+    public void save() {
+        if (pending.getAndSet(encode()) == null) {
+            WRITER.execute(GameSnapshot::flush);
+        }
+    }
+
+    private static void flush() {
+        byte[] data = pending.getAndSet(null);
+        if (data == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        Path path = path();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Error saving game to " + path + ": " + e.getMessage());
+        }
+        WRITE_TIME.recordSince(start);
+    }
+
+    // Forget the saved game, after any write still queued
+    public static void clear() {
+        pending.set(null);
+        WRITER.execute(() -> {
+            try {
+                Files.deleteIfExists(path());
+            } catch (IOException e) {
+                System.out.println("Error removing saved game: " + e.getMessage());
+            }
+        });
+    }
+
+    // The saved game, or null if there is none or it cannot be read
+    public static GameSnapshot load() {
+        Path path = path();
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            return decode(Files.readAllBytes(path));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Ignoring unreadable saved game " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Works out at level load which words to hint and in which order to reveal their
+ * letters, so giving a hint during play is only a lookup.
+ *
+ * For every word the letters are ordered greedily: each next position is the one that
+ * rules out the most other words of the same length that could still fit, counting
+ * the level's answers and the dictionary words spellable from its letters. Words are
+ * hinted most common first and, among equally common words, the ones that take the
+ * fewest letters to give away first.
+ */
+class HintPlanner {
+    private final List<Step> steps = new ArrayList<>();
+    private final Map<String, Step> stepsByWord = new HashMap<>();
+
+    // One word of the plan and the order its letters are revealed in
+    static class Step {
+        private final String word;
+        private final int[] positions;
+        private final int lettersToIdentify; // Reveals after which no other candidate fits
+        private final double zipf;
+
+        Step(String word, int[] positions, int lettersToIdentify, double zipf) {
+            this.word = word;
+            this.positions = positions;
+            this.lettersToIdentify = lettersToIdentify;
+            this.zipf = zipf;
+        }
+
+        String getWord() {
+            return word;
+        }
+
+        int getPosition(int index) {
+            return positions[index];
+        }
+
+        int size() {
+            return positions.length;
+        }
+
+        int getLettersToIdentify() {
+            return lettersToIdentify;
+        }
+    }
+
+    HintPlanner(Collection<String> words, String letters, Dictionary dictionary,
+                DifficultyModel.FrequencyLookup frequencies) {
+        int[] available = LetterCounts.of(letters);
+        Map<Integer, List<String>> poolByLength = new HashMap<>();
+        for (String word : words) {
+            poolByLength.computeIfAbsent(word.length(), length -> candidates(length, words, available, dictionary));
+            steps.add(planWord(word, poolByLength.get(word.length()), frequencies.zipf(word)));
+        }
+
+        steps.sort(Comparator.comparingDouble((Step step) -> Double.isNaN(step.zipf) ? Double.POSITIVE_INFINITY : -step.zipf)
+            .thenComparingInt(Step::getLettersToIdentify)
+            .thenComparing(Step::getWord));
+        for (Step step : steps) {
+            stepsByWord.put(step.word, step);
+        }
+    }
+
+    // Words of the given length the player might think of: the answers plus spellable dictionary words
+    private static List<String> candidates(int length, Collection<String> words, int[] available, Dictionary dictionary) {
+        Set<String> pool = new LinkedHashSet<>();
+        for (String word : words) {
+            if (word.length() == length) {
+                pool.add(word);
+            }
+        }
+        for (String word : dictionary.wordsOfLength(length)) {
+            if (LetterCounts.canForm(word, available)) {
+                pool.add(word);
+            }
+        }
+        return new ArrayList<>(pool);
+    }
+
+    private static Step planWord(String word, List<String> pool, double zipf) {
+        int length = word.length();
+        int[] positions = new int[length];
+        boolean[] chosen = new boolean[length];
+        List<String> remaining = new ArrayList<>(pool);
+        int lettersToIdentify = remaining.size() <= 1 ? 0 : length;
+
+        for (int step = 0; step < length; step++) {
+            // Ties go to the leftmost position, which is also the easiest letter to use
+            int best = -1;
+            int bestMatches = Integer.MAX_VALUE;
+            for (int p = 0; p < length; p++) {
+                if (chosen[p]) {
+                    continue;
+                }
+                int matches = 0;
+                for (String candidate : remaining) {
+                    if (candidate.charAt(p) == word.charAt(p)) {
+                        matches++;
+                    }
+                }
+                if (matches < bestMatches) {
+                    best = p;
+                    bestMatches = matches;
+                }
+            }
+            chosen[best] = true;
+            positions[step] = best;
+
+            List<String> matching = new ArrayList<>(bestMatches);
+            for (String candidate : remaining) {
+                if (candidate.charAt(best) == word.charAt(best)) {
+                    matching.add(candidate);
+                }
+            }
+            if (remaining.size() > 1 && matching.size() <= 1) {
+                lettersToIdentify = step + 1;
+            }
+            remaining = matching;
+        }
+        return new Step(word, positions, lettersToIdentify, zipf);
+    }
+
+    // All words, in the order they should be hinted
+    List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    Step getStep(String word) {
+        return stepsByWord.get(word);
+    }
+}
@@ -0,0 +1,174 @@
+package main;
+
+import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decodes the background images in res/images off the event dispatch thread and
+ * keeps screen-compatible, pre-scaled copies so painting a background is a plain blit.
+ */
+public class ImageService {
+    private static final String IMAGE_DIR = "res/images/";
+    private static final int MAX_SCALED_IMAGES = 6; // a couple of images at a couple of window sizes
+
+    private static final ImageService INSTANCE = new ImageService();
+
+    private final ExecutorService decoder;
+    private final Map<String, CompletableFuture<BufferedImage>> decoded = new ConcurrentHashMap<>();
+    private final Map<ScaledKey, CompletableFuture<BufferedImage>> scaled;
+
+    private ImageService() {
+        decoder = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "image-decoder");
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+
+        // Access-ordered map, so the least recently painted size is evicted first
+        scaled = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ScaledKey, CompletableFuture<BufferedImage>> eldest) {
+                return size() > MAX_SCALED_IMAGES;
+            }
+        };
+    }
+
+    public static ImageService getInstance() {
+        return INSTANCE;
+    }
+
+    // Decode an image (once) on the decoder thread
+    public CompletableFuture<BufferedImage> load(String name) {
+        return decoded.computeIfAbsent(name,
+            n -> CompletableFuture.supplyAsync(() -> toCompatible(read(n)), decoder));
+    }
+
+    // Decode and scale an image for the default screen size ahead of its first paint
+    public void prefetch(String name) {
+        if (GraphicsEnvironment.isHeadless()) {
+            load(name);
+            return;
+        }
+        Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
+        getScaled(name, screen.width, screen.height, null);
+    }
+
+    /**
+     * Returns the image scaled to cover the given size, or null if it is not ready yet.
+     * Missing sizes are scaled on the decoder thread and onReady is then run on the EDT.
+     */
+    public BufferedImage getScaled(String name, int width, int height, Runnable onReady) {
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+
+        ScaledKey key = new ScaledKey(name, width, height);
+        CompletableFuture<BufferedImage> future;
+        synchronized (scaled) {
+            future = scaled.get(key);
+            if (future == null) {
+                future = load(name).thenApplyAsync(source -> scaleToCover(source, width, height), decoder);
+                scaled.put(key, future);
+            }
+        }
+
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+            return future.join();
+        }
+        if (onReady != null) {
+            future.thenRun(() -> SwingUtilities.invokeLater(onReady));
+        }
+        return null;
+    }
+
+    private BufferedImage read(String name) {
+        try {
+            File file = new File(IMAGE_DIR + name);
+            if (file.exists()) {
+                return ImageIO.read(file);
+            }
+            URL url = ImageService.class.getResource("/images/" + name);
+            if (url != null) {
+                return ImageIO.read(url);
+            }
+            throw new IOException("Image file not found: " + name);
+        } catch (IOException e) {
+            System.out.println("Error loading image " + name + ": " + e.getMessage());
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Convert to the pixel layout of the screen so drawImage needs no color conversion
+    private BufferedImage toCompatible(BufferedImage source) {
+        int transparency = source.getColorModel().getTransparency();
+        BufferedImage target = createImage(source.getWidth(), source.getHeight(), transparency);
+        Graphics2D g2d = target.createGraphics();
+        g2d.drawImage(source, 0, 0, null);
+        g2d.dispose();
+        return target;
+    }
+
+    // Scale preserving the aspect ratio, cropping whatever overflows the target size
+    private BufferedImage scaleToCover(BufferedImage source, int width, int height) {
+        double scale = Math.max((double) width / source.getWidth(), (double) height / source.getHeight());
+        int scaledWidth = (int) Math.ceil(source.getWidth() * scale);
+        int scaledHeight = (int) Math.ceil(source.getHeight() * scale);
+
+        BufferedImage target = createImage(width, height, source.getColorModel().getTransparency());
+        Graphics2D g2d = target.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.drawImage(source, (width - scaledWidth) / 2, (height - scaledHeight) / 2, scaledWidth, scaledHeight, null);
+        g2d.dispose();
+        return target;
+    }
+
+    private BufferedImage createImage(int width, int height, int transparency) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(width, height, transparency);
+        }
+        return new BufferedImage(width, height,
+            transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static class ScaledKey {
+        final String name;
+        final int width;
+        final int height;
+
+        ScaledKey(String name, int width, int height) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ScaledKey)) {
+                return false;
+            }
+            ScaledKey other = (ScaledKey) o;
+            return width == other.width && height == other.height && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, width, height);
+        }
+    }
+}
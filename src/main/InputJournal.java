@@ -0,0 +1,248 @@
+package main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Append-only log of every input to a GameSession, so a game can be played again
+ * exactly by the Replayer. The file is memory-mapped and grown by remapping, and each
+ * input is a fixed 16-byte record put straight into the mapping, so recording a tap or
+ * a timer tick allocates nothing and makes no system call. A process that dies still
+ * leaves every record it wrote; the unused tail of the mapping reads as zeros, which
+ * end the journal.
+ *
+ *     header: int magic, int version, long seed, long start (epoch ms), int flags, int 0
+ *     record: long nanos since start, byte type, byte a, short b, int c
+ *             then c bytes for the LEVELS and RESUME records
+ *
+ * The levels of the game go in a LEVELS record first, as level-pack lines. Journals go
+ * to -Dwordscapes.journal (default save/journal, "off" to disable), and only the
+ * newest KEEP_FILES are kept. Written from the EDT only.
+ */
+class InputJournal implements AutoCloseable {
+    static final int MAGIC = 0x574A4E4C; // "WJNL"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 16;
+    static final int FLAG_BONUS_WORDS = 1;
+
+    static final byte LEVELS = 1;      // c = payload length
+    static final byte LEVEL = 2;       // a = 1 for a new game, c = level index
+    static final byte TAP = 3;         // b = letter
+    static final byte SWIPE_START = 4;
+    static final byte SWIPE_LETTER = 5; // b = letter
+    static final byte SWIPE_END = 6;
+    static final byte TICK = 7;
+    static final byte DICTIONARY = 8;  // c = words in the dictionary switched to
+    static final byte RESUME = 9;      // c = payload length, a snapshot restored over the level
+    static final byte CHECKED = 10;    // a = outcome, c = score after the check; lets a replay verify itself
+
+    private static final String DEFAULT_DIR = "save/journal";
+    private static final int KEEP_FILES = 20;
+    private static final int INITIAL_SIZE = 1 << 20;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long startNanos = System.nanoTime();
+    private MappedByteBuffer map;
+
+    private InputJournal(Path path, long seed, int flags) throws IOException {
+        this.path = path;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_SIZE);
+        map.putInt(MAGIC).putInt(VERSION).putLong(seed).putLong(System.currentTimeMillis()).putInt(flags).putInt(0);
+    }
+
+    // A new journal in the configured directory, or null if journaling is off or the file cannot be made
+    static InputJournal open(long seed, boolean bonusWordsEnabled, List<GameLevel> levels) {
+        String dir = System.getProperty("wordscapes.journal", DEFAULT_DIR);
+        if (dir.equals("off")) {
+            return null;
+        }
+        try {
+            Path directory = Paths.get(dir);
+            Files.createDirectories(directory);
+            prune(directory);
+            String name = "session-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())
+                + "-" + Long.toHexString(seed) + ".wjnl";
+            InputJournal journal = new InputJournal(directory.resolve(name), seed, bonusWordsEnabled ? FLAG_BONUS_WORDS : 0);
+            StringBuilder pack = new StringBuilder();
+            for (GameLevel level : levels) {
+                pack.append(LevelPack.format(level)).append('\n');
+            }
+            journal.payload(LEVELS, pack.toString().getBytes(StandardCharsets.UTF_8));
+            return journal;
+        } catch (IOException e) {
+            System.out.println("Error opening input journal in " + dir + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Make room for the new journal by removing the oldest ones
+    private static void prune(Path directory) throws IOException {
+        List<Path> journals = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.wjnl")) {
+            for (Path file : files) {
+                journals.add(file);
+            }
+        }
+        Collections.sort(journals); // Names start with the time
+        for (int i = 0; i <= journals.size() - KEEP_FILES; i++) {
+            Files.deleteIfExists(journals.get(i));
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    void level(int levelIndex, boolean newGame) {
+        record(LEVEL, newGame ? 1 : 0, 0, levelIndex);
+    }
+
+    void tap(char letter) {
+        record(TAP, 0, letter, 0);
+    }
+
+    void swipeStart() {
+        record(SWIPE_START, 0, 0, 0);
+    }
+
+    void swipeLetter(char letter) {
+        record(SWIPE_LETTER, 0, letter, 0);
+    }
+
+    void swipeEnd() {
+        record(SWIPE_END, 0, 0, 0);
+    }
+
+    void tick() {
+        record(TICK, 0, 0, 0);
+    }
+
+    void dictionary(int size) {
+        record(DICTIONARY, 0, 0, size);
+    }
+
+    void checked(GameSession.Outcome outcome, int score) {
+        record(CHECKED, outcome.ordinal(), 0, score);
+    }
+
+    void resume(byte[] snapshot) {
+        payload(RESUME, snapshot);
+    }
+
+    private void record(byte type, int a, int b, int c) {
+        if (map == null) {
+            return;
+        }
+        ensure(RECORD_BYTES);
+        map.putLong(System.nanoTime() - startNanos).put(type).put((byte) a).putShort((short) b).putInt(c);
+    }
+
+    private void payload(byte type, byte[] data) {
+        if (map == null) {
+            return;
+        }
+        ensure(RECORD_BYTES + data.length);
+        map.putLong(System.nanoTime() - startNanos).put(type).put((byte) 0).putShort((short) 0).putInt(data.length);
+        map.put(data);
+    }
+
+    // Double the mapping when the next record does not fit
+    private void ensure(int bytes) {
+        if (map.remaining() >= bytes) {
+            return;
+        }
+        int position = map.position();
+        long size = Math.max((long) map.capacity() * 2, position + (long) bytes);
+        try {
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            map.position(position);
+        } catch (IOException e) {
+            System.out.println("Input journal " + path + " stopped: " + e.getMessage());
+            map = null;
+        }
+    }
+
+    // Flush the mapping and cut the file to the records written
+    @Override
+    public void close() {
+        if (map == null) {
+            return;
+        }
+        int end = map.position();
+        map.force();
+        map = null;
+        try {
+            channel.truncate(end);
+        } catch (IOException e) {
+            // Some platforms cannot truncate a mapped file; readers stop at the zeros
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("Error closing input journal " + path + ": " + e.getMessage());
+        }
+    }
+
+    // A journal read back for replay
+    static class Recording {
+        final long seed;
+        final long startMillis;
+        final boolean bonusWordsEnabled;
+        final List<GameLevel> levels = new ArrayList<>();
+        final ByteBuffer records; // Positioned at the first record after LEVELS
+
+        private Recording(long seed, long startMillis, boolean bonusWordsEnabled, ByteBuffer records) {
+            this.seed = seed;
+            this.startMillis = startMillis;
+            this.bonusWordsEnabled = bonusWordsEnabled;
+            this.records = records;
+        }
+    }
+
+    static Recording read(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("not an input journal");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported journal version " + version);
+        }
+        long seed = buffer.getLong();
+        long startMillis = buffer.getLong();
+        int flags = buffer.getInt();
+        buffer.getInt();
+        Recording recording = new Recording(seed, startMillis, (flags & FLAG_BONUS_WORDS) != 0, buffer);
+
+        if (buffer.remaining() < RECORD_BYTES || buffer.get(buffer.position() + 8) != LEVELS) {
+            throw new IOException("journal has no levels");
+        }
+        buffer.position(buffer.position() + 12);
+        byte[] pack = new byte[buffer.getInt()];
+        buffer.get(pack);
+        int lineNumber = 0;
+        for (String line : new String(pack, StandardCharsets.UTF_8).split("\n")) {
+            LevelPack.Entry entry = LevelPack.parse(++lineNumber, line);
+            if (entry != null) {
+                recording.levels.add(entry.toGameLevel());
+            }
+        }
+        return recording;
+    }
+}
@@ -0,0 +1,122 @@
+package main;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-memory latency histogram. Values are kept in microseconds in log-linear
+ * buckets (four per power of two), so percentiles are accurate to within 25%
+ * whatever the range, and recording never allocates or locks.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 160; // Up to 2^40 microseconds
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        counts.incrementAndGet(bucketOf(micros));
+        total.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    // Convenience for the usual "long start = System.nanoTime()" pattern
+    public void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return total.sum();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    public double getMeanMicros() {
+        long count = total.sum();
+        return count == 0 ? 0 : (double) sumMicros.sum() / count;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100), in microseconds
+    public long getPercentileMicros(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sumMicros.reset();
+        maxMicros.reset();
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - 2)) - SUB_BUCKETS;
+        return Math.min(BUCKETS - 1, SUB_BUCKETS * (exponent - 1) + sub);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 1;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - 2)) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-22s n=%-7d p50=%-8s p99=%-8s max=%s", name, getCount(),
+            format(getPercentileMicros(50)), format(getPercentileMicros(99)), format(getMaxMicros()));
+    }
+
+    static String format(long micros) {
+        if (micros >= 10_000) {
+            return (micros / 1000) + "ms";
+        }
+        if (micros >= 1000) {
+            return String.format("%.1fms", micros / 1000.0);
+        }
+        return micros + "us";
+    }
+}
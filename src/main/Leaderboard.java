@@ -0,0 +1,481 @@
+package main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Rankings of every result played on this machine: all time, per day and per
+ * built-in level.
+ *
+ * Results are appended to scores.log and never rewritten; the log is read once at
+ * startup and after that only appended to, by a writer thread that commits whatever
+ * has queued up with one write and one fsync. In memory each board keeps its best
+ * TOP_K results in score order, for the top-N lists, and a Fenwick tree counting
+ * results per score, for ranks; adding a result and both queries take logarithmic
+ * time however long the history is.
+ *
+ *     record: int length, int CRC32 of the payload, payload
+ *     payload: byte NAME, int player, short length, UTF-8 name
+ *            | byte RESULT, byte kind, int player, int level, int score, long time
+ *
+ * The directory comes from -Dwordscapes.leaderboard (default save/leaderboard). The
+ * shared leaderboard is loaded off the EDT by loadShared(), since a long history takes
+ * a while to replay; if the directory cannot be opened it ranks this session only.
+ *
+ *     java main.Leaderboard [n]   (prints the top n of every board)
+ */
+public class Leaderboard {
+    public static final int TOP_K = 100;
+    private static final String DEFAULT_DIR = "save/leaderboard";
+    private static final int MAX_BATCH = 4096;
+
+    private static final byte RECORD_NAME = 1;
+    private static final byte RECORD_RESULT = 2;
+    private static final byte KIND_GAME = 0;   // A whole game; level is the last one reached, 0 off the built-in levels
+    private static final byte KIND_LEVEL = 1;  // One built-in level; score is what the level earned
+
+    private static final LatencyHistogram COMMIT_TIME = Metrics.histogram("leaderboard.commit");
+    private static CompletableFuture<Leaderboard> loading;
+
+    private final Path logPath;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Map<String, Integer> playerIds = new HashMap<>();
+    private final List<String> players = new ArrayList<>();
+    private final Board allTime = new Board();
+    private final Map<Integer, Board> levels = new ConcurrentHashMap<>();
+    private final Map<Long, Board> days = new ConcurrentHashMap<>();
+    private long sequence;
+    private final BlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+    private final FileChannel log; // Null for a leaderboard kept in memory only
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private static final byte[] CLOSE = new byte[0]; // Tells the writer to stop
+
+    // One result on a board
+    public static class Entry {
+        private final String player;
+        private final int score;
+        private final int level;
+        private final long time;
+        private final long seq; // Order of recording, so equal results stay distinct
+
+        Entry(String player, int score, int level, long time, long seq) {
+            this.player = player;
+            this.score = score;
+            this.level = level;
+            this.time = time;
+            this.seq = seq;
+        }
+
+        public String getPlayer() {
+            return player;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public long getTime() {
+            return time;
+        }
+    }
+
+    // Highest score first; of equal scores, the one reached first
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt((Entry entry) -> -entry.score)
+        .thenComparingLong(entry -> entry.time)
+        .thenComparingLong(entry -> entry.seq);
+
+    // One ranking: the best TOP_K results, and how many results there are of each score
+    public static class Board {
+        private final TreeSet<Entry> top = new TreeSet<>(RANKING);
+        private int[] counts = new int[256];
+        private int[] tree = new int[257]; // Fenwick tree over counts, 1-based
+        private int size;
+
+        synchronized void add(Entry entry) {
+            if (top.size() < TOP_K || RANKING.compare(entry, top.last()) < 0) {
+                top.add(entry);
+                if (top.size() > TOP_K) {
+                    top.pollLast();
+                }
+            }
+            int score = Math.max(0, entry.score);
+            if (score >= counts.length) {
+                grow(score);
+            }
+            counts[score]++;
+            for (int i = score + 1; i < tree.length; i += i & -i) {
+                tree[i]++;
+            }
+            size++;
+        }
+
+        // Room for the score, rebuilding the tree from the counts in linear time
+        private void grow(int score) {
+            int capacity = Integer.highestOneBit(score) << 1;
+            int[] grown = new int[capacity];
+            System.arraycopy(counts, 0, grown, 0, counts.length);
+            counts = grown;
+            tree = new int[capacity + 1];
+            for (int i = 1; i <= capacity; i++) {
+                tree[i] += counts[i - 1];
+                int parent = i + (i & -i);
+                if (parent <= capacity) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+
+        // Results scoring at most the given score
+        private int countAtMost(int score) {
+            if (score >= counts.length) {
+                return size;
+            }
+            int count = 0;
+            for (int i = score + 1; i > 0; i -= i & -i) {
+                count += tree[i];
+            }
+            return count;
+        }
+
+        // The best n results, n at most TOP_K
+        public synchronized List<Entry> top(int n) {
+            List<Entry> best = new ArrayList<>(Math.min(n, top.size()));
+            for (Entry entry : top) {
+                if (best.size() == n) {
+                    break;
+                }
+                best.add(entry);
+            }
+            return best;
+        }
+
+        // Place of a result with this score: one more than the results that beat it
+        public synchronized int rank(int score) {
+            return score < 0 ? size + 1 : size - countAtMost(score) + 1;
+        }
+
+        public synchronized int size() {
+            return size;
+        }
+    }
+
+    private Leaderboard(Path dir) throws IOException {
+        if (dir == null) {
+            logPath = null;
+            log = null;
+        } else {
+            Files.createDirectories(dir);
+            logPath = dir.resolve("scores.log");
+            log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            replayLog();
+        }
+
+        writer = new Thread(this::writeLoop, "leaderboard-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static Leaderboard open(Path dir) throws IOException {
+        return new Leaderboard(dir);
+    }
+
+    // A leaderboard that keeps its results in memory only, for when the directory cannot be used
+    static Leaderboard inMemory() {
+        try {
+            return new Leaderboard(null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Cannot happen without files
+        }
+    }
+
+    // Start loading the leaderboard in -Dwordscapes.leaderboard off the EDT, once; it is flushed when the JVM exits
+    public static synchronized CompletableFuture<Leaderboard> loadShared() {
+        if (loading == null) {
+            Path dir = Paths.get(System.getProperty("wordscapes.leaderboard", DEFAULT_DIR));
+            loading = CompletableFuture.supplyAsync(() -> {
+                Leaderboard leaderboard;
+                try {
+                    leaderboard = open(dir);
+                } catch (IOException e) {
+                    System.out.println("Error opening leaderboard in " + dir + ": " + e.getMessage()
+                        + " (scores will not be saved)");
+                    leaderboard = inMemory();
+                }
+                Runtime.getRuntime().addShutdownHook(new Thread(leaderboard::close, "leaderboard-flush"));
+                return leaderboard;
+            });
+        }
+        return loading;
+    }
+
+    // The shared leaderboard, waiting for it to load; the EDT uses loadShared() instead
+    public static Leaderboard shared() {
+        return loadShared().join();
+    }
+
+    // The shared leaderboard if it has finished loading, otherwise null
+    public static Leaderboard sharedIfLoaded() {
+        return loadShared().getNow(null);
+    }
+
+    // --- Queries ---
+
+    public Board allTime() {
+        return allTime;
+    }
+
+    public Board level(int level) {
+        return levels.computeIfAbsent(level, l -> new Board());
+    }
+
+    public Board day(LocalDate date) {
+        return days.computeIfAbsent(date.toEpochDay(), d -> new Board());
+    }
+
+    public Board today() {
+        return day(LocalDate.now(zone));
+    }
+
+    // --- Recording: ranked at once, durable once the writer has committed ---
+
+    // A finished game; level is the last built-in level reached, 0 for other games
+    public void recordGame(String player, int level, int score) {
+        record(KIND_GAME, player, level, score, System.currentTimeMillis());
+    }
+
+    // A completed built-in level and the points it earned
+    public void recordLevel(String player, int level, int score) {
+        record(KIND_LEVEL, player, level, score, System.currentTimeMillis());
+    }
+
+    private synchronized void record(byte kind, String player, int level, int score, long time) {
+        Integer id = playerIds.get(player);
+        if (id == null) {
+            id = addPlayer(player);
+            append(encodeName(id, player));
+        }
+        apply(kind, id, level, score, time);
+        append(encodeResult(kind, id, level, score, time));
+    }
+
+    private int addPlayer(String player) {
+        int id = players.size();
+        players.add(player);
+        playerIds.put(player, id);
+        return id;
+    }
+
+    private void apply(byte kind, int playerId, int level, int score, long time) {
+        Entry entry = new Entry(players.get(playerId), score, level, time, sequence++);
+        if (kind == KIND_LEVEL) {
+            level(level).add(entry);
+        } else {
+            allTime.add(entry);
+            days.computeIfAbsent(Instant.ofEpochMilli(time).atZone(zone).toLocalDate().toEpochDay(), d -> new Board())
+                .add(entry);
+        }
+    }
+
+    private void append(byte[] record) {
+        if (!closed) {
+            queue.add(record);
+        }
+    }
+
+    // Write whatever is queued, then stop the writer
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(CLOSE);
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Writer thread ---
+
+    private void writeLoop() {
+        List<byte[]> batch = new ArrayList<>();
+        boolean stop = false;
+        while (!stop) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH);
+            if (batch.remove(CLOSE)) {
+                queue.drainTo(batch);
+                stop = true;
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+        try {
+            if (log != null) {
+                log.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Error closing leaderboard log: " + e.getMessage());
+        }
+    }
+
+    // One write and one fsync for the whole batch
+    private void commit(List<byte[]> batch) {
+        if (log == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        int size = 0;
+        for (byte[] record : batch) {
+            size += record.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] record : batch) {
+            buffer.put(record);
+        }
+        buffer.flip();
+        try {
+            long position = log.size();
+            while (buffer.hasRemaining()) {
+                position += log.write(buffer, position);
+            }
+            log.force(false);
+        } catch (IOException e) {
+            System.out.println("Error writing leaderboard log: " + e.getMessage());
+        }
+        COMMIT_TIME.recordSince(start);
+    }
+
+    // --- Loading ---
+
+    private void replayLog() throws IOException {
+        long length = log.size();
+        if (length == 0) {
+            return;
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("leaderboard log too large: " + length + " bytes");
+        }
+        // Read, not mapped: a file with a live mapping cannot be truncated on every platform
+        ByteBuffer records = ByteBuffer.allocate((int) length);
+        while (records.hasRemaining() && log.read(records, records.position()) > 0) {
+            // Read the whole log
+        }
+        records.flip();
+        CRC32 crc = new CRC32();
+        int good = 0;
+        while (records.remaining() >= 8) {
+            int size = records.getInt();
+            int expected = records.getInt();
+            if (size <= 0 || size > records.remaining()) {
+                break;
+            }
+            ByteBuffer payload = records.slice().limit(size);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != expected) {
+                break;
+            }
+            byte type = payload.get();
+            if (type == RECORD_NAME) {
+                payload.getInt(); // Ids are handed out in order
+                byte[] name = new byte[payload.getShort()];
+                payload.get(name);
+                addPlayer(new String(name, StandardCharsets.UTF_8));
+            } else if (type == RECORD_RESULT) {
+                byte kind = payload.get();
+                int player = payload.getInt();
+                apply(kind, player, payload.getInt(), payload.getInt(), payload.getLong());
+            }
+            records.position(records.position() + size);
+            good = records.position();
+        }
+        if (good < length) {
+            System.out.println("Leaderboard log cut at byte " + good + " of " + length + " (incomplete write)");
+            log.truncate(good);
+            log.force(true);
+        }
+    }
+
+    // --- Encoding ---
+
+    private static byte[] encodeName(int id, String player) {
+        byte[] name = player.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(7 + name.length);
+        payload.put(RECORD_NAME).putInt(id).putShort((short) name.length).put(name);
+        return frame(payload.array());
+    }
+
+    private static byte[] encodeResult(byte kind, int player, int level, int score, long time) {
+        ByteBuffer payload = ByteBuffer.allocate(22);
+        payload.put(RECORD_RESULT).put(kind).putInt(player).putInt(level).putInt(score).putLong(time);
+        return frame(payload.array());
+    }
+
+    // Log framing: length, CRC32 of the payload, payload
+    private static byte[] frame(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer framed = ByteBuffer.allocate(8 + payload.length);
+        framed.putInt(payload.length);
+        framed.putInt((int) crc.getValue());
+        framed.put(payload);
+        return framed.array();
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        long start = System.nanoTime();
+        Leaderboard leaderboard = shared();
+        System.out.printf("%d results loaded in %d ms%n", leaderboard.allTime().size(), (System.nanoTime() - start) / 1_000_000);
+
+        print("Today", leaderboard.today(), n);
+        print("All time", leaderboard.allTime(), n);
+        List<Integer> levelNumbers = new ArrayList<>(leaderboard.levels.keySet());
+        levelNumbers.sort(null);
+        for (int level : levelNumbers) {
+            print("Level " + level, leaderboard.level(level), n);
+        }
+    }
+
+    private static void print(String title, Board board, int n) {
+        System.out.println("=== " + title + " (" + board.size() + " results) ===");
+        int place = 1;
+        for (Entry entry : board.top(n)) {
+            System.out.printf("%3d. %-20s %7d%n", place++, entry.getPlayer(), entry.getScore());
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package main;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.geom.Path2D;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The circle the letter buttons sit on. Besides laying the buttons out it lets the
+ * player spell a word by dragging across the letters, hit-testing the pointer
+ * against an angular sector table built from the same layout.
+ */
+class LetterCircle extends JPanel {
+    private static final int PADDING = 40;
+    private static final int BUTTON_INSET = 30; // Distance from the circle edge to the button centers
+    private static final int SECTORS = 360;     // Resolution of the angle -> letter lookup table
+    private static final float TRAIL_WIDTH = 8f;
+
+    // Receives the letters of a swipe in the order they are crossed
+    interface SwipeListener {
+        void swipeStarted();
+        void letterSwiped(String letter);
+        void swipeEnded();
+    }
+
+    private final Color outlineColor;
+    private final Color trailColor;
+    private SwipeListener swipeListener;
+
+    // --- Layout, rebuilt whenever the buttons or the size change ---
+    private List<JButton> letterButtons = List.of();
+    private int centerX;
+    private int centerY;
+    private int radius;
+    private int hitRadius;
+    private int[] letterX = new int[0];
+    private int[] letterY = new int[0];
+    private final int[] sectorTable = new int[SECTORS];
+
+    // --- Swipe state ---
+    private final SwipeHandler swipeHandler = new SwipeHandler();
+    private int[] swipedLetters = new int[0];
+    private boolean[] used = new boolean[0];
+    private int swipedCount;
+    private boolean swipeActive;
+    private boolean tracking;
+    private JButton pressedButton;
+    private final Path2D.Float trail = new Path2D.Float();
+    private int pointerX;
+    private int pointerY;
+    private int lastSampleX;
+    private int lastSampleY;
+    private int pendingX;
+    private int pendingY;
+    private boolean flushScheduled;
+
+    LetterCircle(Color outlineColor, Color trailColor) {
+        this.outlineColor = outlineColor;
+        this.trailColor = trailColor;
+        setLayout(null);
+        setOpaque(false);
+
+        addMouseListener(swipeHandler);
+        addMouseMotionListener(swipeHandler);
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                layoutLetters(letterButtons);
+            }
+        });
+    }
+
+    void setSwipeListener(SwipeListener swipeListener) {
+        this.swipeListener = swipeListener;
+    }
+
+    // Letter buttons forward their presses and drags so a swipe can start on top of a button
+    void installSwipe(JButton button) {
+        button.addMouseListener(swipeHandler);
+        button.addMouseMotionListener(swipeHandler);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        g2d.setColor(new Color(255, 255, 255, 150));
+        int diameter = Math.min(getWidth(), getHeight()) - (2 * PADDING);
+        int x = (getWidth() - diameter) / 2;
+        int y = (getHeight() - diameter) / 2;
+        g2d.fillOval(x, y, diameter, diameter);
+
+        g2d.setColor(outlineColor);
+        g2d.setStroke(new BasicStroke(3f));
+        g2d.drawOval(x, y, diameter, diameter);
+
+        if (swipeActive && swipedCount > 0) {
+            g2d.setColor(trailColor);
+            g2d.setStroke(new BasicStroke(TRAIL_WIDTH, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+            g2d.draw(trail);
+            int last = swipedLetters[swipedCount - 1];
+            g2d.drawLine(letterX[last], letterY[last], pointerX, pointerY);
+        }
+        g2d.dispose();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(300, 300);
+    }
+
+    // Place the buttons evenly around the circle and rebuild the sector table
+    void layoutLetters(List<JButton> buttons) {
+        letterButtons = buttons;
+        int count = buttons.size();
+        if (count == 0) {
+            return;
+        }
+
+        int width = getWidth();
+        int height = getHeight();
+        int diameter = Math.min(width, height) - (2 * PADDING);
+        centerX = width / 2;
+        centerY = height / 2;
+        radius = diameter / 2 - BUTTON_INSET;
+
+        letterX = new int[count];
+        letterY = new int[count];
+        swipedLetters = new int[count];
+        used = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            JButton button = buttons.get(i);
+            double angle = 2 * Math.PI * i / count - Math.PI / 2;
+            letterX[i] = (int) (centerX + radius * Math.cos(angle));
+            letterY[i] = (int) (centerY + radius * Math.sin(angle));
+            button.setLocation(letterX[i] - button.getWidth() / 2, letterY[i] - button.getHeight() / 2);
+            hitRadius = Math.max(button.getWidth(), button.getHeight()) / 2;
+        }
+
+        // Sector b covers the angles [b, b + 1) degrees as returned by Math.atan2.
+        // Letter i sits at 2*PI*i/count - PI/2, so the nearest letter is a rounding away.
+        for (int b = 0; b < SECTORS; b++) {
+            double angle = 2 * Math.PI * (b + 0.5) / SECTORS - Math.PI;
+            double slot = (angle + Math.PI / 2) * count / (2 * Math.PI);
+            sectorTable[b] = Math.floorMod((int) Math.round(slot), count);
+        }
+        cancelSwipe();
+    }
+
+    // Index of the letter under the point, or -1
+    int hitTest(int x, int y) {
+        int count = letterX.length;
+        if (count == 0 || count != letterButtons.size()) {
+            return -1;
+        }
+        int dx = x - centerX;
+        int dy = y - centerY;
+        int distSq = dx * dx + dy * dy;
+        int inner = Math.max(0, radius - hitRadius);
+        int outer = radius + hitRadius;
+        if (distSq < inner * inner || distSq > outer * outer) {
+            return -1;
+        }
+
+        int sector = (int) ((Math.atan2(dy, dx) + Math.PI) * SECTORS / (2 * Math.PI));
+        int index = sectorTable[Math.min(sector, SECTORS - 1)];
+        int ldx = x - letterX[index];
+        int ldy = y - letterY[index];
+        return ldx * ldx + ldy * ldy <= hitRadius * hitRadius ? index : -1;
+    }
+
+    private void cancelSwipe() {
+        swipedCount = 0;
+        Arrays.fill(used, false);
+        swipeActive = false;
+        tracking = false;
+        pressedButton = null;
+        trail.reset();
+        repaint();
+    }
+
+    private void beginTracking(int x, int y, JButton source) {
+        cancelSwipe();
+        tracking = true;
+        pressedButton = source;
+        pointerX = lastSampleX = x;
+        pointerY = lastSampleY = y;
+
+        int index = source != null ? letterButtons.indexOf(source) : hitTest(x, y);
+        if (index >= 0 && index < used.length) {
+            select(index);
+        }
+    }
+
+    // Queue the newest pointer position; bursts of drag events are folded into one flush
+    private void queueDrag(int x, int y) {
+        pendingX = x;
+        pendingY = y;
+        if (!flushScheduled) {
+            flushScheduled = true;
+            SwingUtilities.invokeLater(this::flushDrag);
+        }
+    }
+
+    private void flushDrag() {
+        flushScheduled = false;
+        if (!tracking) {
+            return;
+        }
+        int x = pendingX;
+        int y = pendingY;
+
+        // Walk the segment since the last flush so a fast swipe cannot skip a letter
+        int dx = x - lastSampleX;
+        int dy = y - lastSampleY;
+        int step = Math.max(1, hitRadius / 2);
+        int samples = Math.max(1, (int) Math.ceil(Math.hypot(dx, dy) / step));
+        for (int s = 1; s <= samples; s++) {
+            int index = hitTest(lastSampleX + dx * s / samples, lastSampleY + dy * s / samples);
+            if (index >= 0 && !used[index]) {
+                select(index);
+            }
+        }
+        lastSampleX = x;
+        lastSampleY = y;
+        movePointer(x, y);
+    }
+
+    private void select(int index) {
+        if (swipedCount == swipedLetters.length) {
+            return;
+        }
+        // A press on a button only becomes a swipe once a second letter is crossed;
+        // disarm the button so releasing over it does not also fire its click.
+        boolean activate = !swipeActive && (pressedButton == null || swipedCount > 0);
+        swipedLetters[swipedCount++] = index;
+        used[index] = true;
+
+        if (swipedCount == 1) {
+            trail.moveTo(letterX[index], letterY[index]);
+        } else {
+            trail.lineTo(letterX[index], letterY[index]);
+        }
+
+        if (activate) {
+            swipeActive = true;
+            if (pressedButton != null) {
+                pressedButton.getModel().setArmed(false);
+                pressedButton.getModel().setPressed(false);
+            }
+            if (swipeListener != null) {
+                swipeListener.swipeStarted();
+                for (int i = 0; i < swipedCount; i++) {
+                    swipeListener.letterSwiped(letterButtons.get(swipedLetters[i]).getText());
+                }
+            }
+            repaint();
+        } else if (swipeActive && swipeListener != null) {
+            swipeListener.letterSwiped(letterButtons.get(index).getText());
+        }
+    }
+
+    // Only repaint the area touched by the rubber band between the last letter and the pointer
+    private void movePointer(int x, int y) {
+        int oldX = pointerX;
+        int oldY = pointerY;
+        pointerX = x;
+        pointerY = y;
+        if (!swipeActive || swipedCount == 0) {
+            return;
+        }
+        int last = swipedLetters[swipedCount - 1];
+        int prev = swipedCount > 1 ? swipedLetters[swipedCount - 2] : last;
+        int minX = Math.min(Math.min(oldX, x), Math.min(letterX[last], letterX[prev]));
+        int minY = Math.min(Math.min(oldY, y), Math.min(letterY[last], letterY[prev]));
+        int maxX = Math.max(Math.max(oldX, x), Math.max(letterX[last], letterX[prev]));
+        int maxY = Math.max(Math.max(oldY, y), Math.max(letterY[last], letterY[prev]));
+        int pad = (int) TRAIL_WIDTH;
+        repaint(minX - pad, minY - pad, maxX - minX + 2 * pad, maxY - minY + 2 * pad);
+    }
+
+    private class SwipeHandler extends MouseAdapter {
+        @Override
+        public void mousePressed(MouseEvent e) {
+            if (!SwingUtilities.isLeftMouseButton(e)) {
+                return;
+            }
+            Point p = SwingUtilities.convertPoint(e.getComponent(), e.getPoint(), LetterCircle.this);
+            JButton source = e.getComponent() instanceof JButton ? (JButton) e.getComponent() : null;
+            beginTracking(p.x, p.y, source);
+        }
+
+        @Override
+        public void mouseDragged(MouseEvent e) {
+            if (tracking) {
+                Point p = SwingUtilities.convertPoint(e.getComponent(), e.getPoint(), LetterCircle.this);
+                queueDrag(p.x, p.y);
+            }
+        }
+
+        @Override
+        public void mouseReleased(MouseEvent e) {
+            if (!tracking) {
+                return;
+            }
+            Point p = SwingUtilities.convertPoint(e.getComponent(), e.getPoint(), LetterCircle.this);
+            pendingX = p.x;
+            pendingY = p.y;
+            flushDrag();
+
+            boolean wasSwipe = swipeActive;
+            cancelSwipe();
+            if (wasSwipe && swipeListener != null) {
+                swipeListener.swipeEnded();
+            }
+        }
+    }
+}
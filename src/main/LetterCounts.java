@@ -0,0 +1,44 @@
+package main;
+
+/**
+ * Letter multisets as plain int[26] count arrays, for checking whether a word can
+ * be spelled from a level's letters without building any collections.
+ */
+public final class LetterCounts {
+    public static final int ALPHABET = 26;
+
+    private LetterCounts() {
+    }
+
+    // Counts of A-Z in the word; other characters are ignored
+    public static int[] of(String letters) {
+        int[] counts = new int[ALPHABET];
+        for (int i = 0; i < letters.length(); i++) {
+            int c = letters.charAt(i) - 'A';
+            if (c >= 0 && c < ALPHABET) {
+                counts[c]++;
+            }
+        }
+        return counts;
+    }
+
+    // True if every letter of the word is available often enough in the counts
+    public static boolean canForm(String word, int[] available) {
+        int[] used = new int[ALPHABET];
+        for (int i = 0; i < word.length(); i++) {
+            int c = word.charAt(i) - 'A';
+            if (c < 0 || c >= ALPHABET || ++used[c] > available[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int size(int[] counts) {
+        int size = 0;
+        for (int count : counts) {
+            size += count;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,280 @@
+package main;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Checks level packs before they are published: every word must be spellable from
+ * the level's letters, appear once, be upper-case A-Z and be a playable length.
+ *
+ * Packs are streamed in batches that are linted in parallel, with a bounded number of
+ * batches in flight so memory stays flat however large the pack is.
+ *
+ *     java main.LevelLinter pack1.tsv pack2.tsv   (no arguments: the built-in levels)
+ */
+public class LevelLinter {
+    public static final int MIN_WORD_LENGTH = 3;
+    public static final int MIN_WORDS_PER_LEVEL = 3;
+    private static final int BATCH_SIZE = 2048;
+
+    public enum Problem {
+        DUPLICATE("duplicate word"),
+        NOT_FORMABLE("cannot be made from the letters"),
+        CASE("not upper-case"),
+        INVALID_CHARACTERS("contains characters other than A-Z"),
+        TOO_SHORT("shorter than " + MIN_WORD_LENGTH + " letters"),
+        TOO_LONG("longer than the letter set"),
+        TOO_FEW_WORDS("fewer than " + MIN_WORDS_PER_LEVEL + " words"),
+        NO_FULL_WORD("no word uses all the letters");
+
+        private final String description;
+
+        Problem(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    public static class Issue {
+        private final int lineNumber;
+        private final String letters;
+        private final String word;
+        private final Problem problem;
+
+        Issue(int lineNumber, String letters, String word, Problem problem) {
+            this.lineNumber = lineNumber;
+            this.letters = letters;
+            this.word = word;
+            this.problem = problem;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getLetters() {
+            return letters;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        public Problem getProblem() {
+            return problem;
+        }
+
+        // NO_FULL_WORD is a content warning; everything else breaks the level
+        public boolean isError() {
+            return problem != Problem.NO_FULL_WORD;
+        }
+
+        @Override
+        public String toString() {
+            String where = lineNumber > 0 ? "line " + lineNumber : "level";
+            return where + " [" + letters + "] " + (word != null ? word + ": " : "") + problem.getDescription();
+        }
+    }
+
+    public static class Report {
+        private final List<Issue> issues;
+        private final int levels;
+
+        Report(List<Issue> issues, int levels) {
+            this.issues = issues;
+            this.levels = levels;
+        }
+
+        public List<Issue> getIssues() {
+            return issues;
+        }
+
+        public int getLevelCount() {
+            return levels;
+        }
+
+        public boolean hasErrors() {
+            return issues.stream().anyMatch(Issue::isError);
+        }
+    }
+
+    private LevelLinter() {
+    }
+
+    public static List<Issue> lint(LevelPack.Entry entry) {
+        List<Issue> issues = new ArrayList<>();
+        String letters = entry.getLetters();
+        int line = entry.getLineNumber();
+
+        String upperLetters = letters.toUpperCase(Locale.ROOT);
+        if (!upperLetters.equals(letters)) {
+            issues.add(new Issue(line, letters, null, Problem.CASE));
+        }
+        if (!isAtoZ(upperLetters)) {
+            issues.add(new Issue(line, letters, null, Problem.INVALID_CHARACTERS));
+        }
+        int[] available = LetterCounts.of(upperLetters);
+
+        Set<String> seen = new HashSet<>();
+        boolean fullWord = false;
+        for (String word : entry.getWords()) {
+            String upper = word.toUpperCase(Locale.ROOT);
+            if (!seen.add(upper)) {
+                issues.add(new Issue(line, letters, word, Problem.DUPLICATE));
+                continue;
+            }
+            if (!upper.equals(word)) {
+                issues.add(new Issue(line, letters, word, Problem.CASE));
+            }
+            if (!isAtoZ(upper)) {
+                issues.add(new Issue(line, letters, word, Problem.INVALID_CHARACTERS));
+                continue;
+            }
+            if (upper.length() < MIN_WORD_LENGTH) {
+                issues.add(new Issue(line, letters, word, Problem.TOO_SHORT));
+            }
+            if (upper.length() > upperLetters.length()) {
+                issues.add(new Issue(line, letters, word, Problem.TOO_LONG));
+            } else if (!LetterCounts.canForm(upper, available)) {
+                issues.add(new Issue(line, letters, word, Problem.NOT_FORMABLE));
+            }
+            fullWord |= upper.length() == upperLetters.length() && LetterCounts.canForm(upper, available);
+        }
+
+        if (seen.size() < MIN_WORDS_PER_LEVEL) {
+            issues.add(new Issue(line, letters, null, Problem.TOO_FEW_WORDS));
+        }
+        if (!fullWord) {
+            issues.add(new Issue(line, letters, null, Problem.NO_FULL_WORD));
+        }
+        return issues;
+    }
+
+    private static boolean isAtoZ(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return false;
+            }
+        }
+        return !s.isEmpty();
+    }
+
+    public static Report lint(List<GameLevel> levels) {
+        List<Issue> issues = new ArrayList<>();
+        for (GameLevel level : levels) {
+            issues.addAll(lint(new LevelPack.Entry(0, level.getLetters(), new ArrayList<>(level.getValidWords()))));
+        }
+        return new Report(issues, levels.size());
+    }
+
+    // Stream the pack and lint batches of levels on all cores
+    public static Report lint(Path pack) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Batcher batcher = new Batcher(pool, new Semaphore(threads * 2));
+        try {
+            LevelPack.read(pack, batcher);
+            batcher.flush();
+
+            List<Issue> issues = new ArrayList<>();
+            for (Future<List<Issue>> result : batcher.results) {
+                issues.addAll(result.get());
+            }
+            issues.sort(Comparator.comparingInt(Issue::getLineNumber));
+            return new Report(issues, batcher.levels);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while linting " + pack, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error linting " + pack, e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Groups streamed entries into batches; blocks the reader while too many are queued
+    private static class Batcher implements Consumer<LevelPack.Entry> {
+        private final ExecutorService pool;
+        private final Semaphore inFlight;
+        private final List<Future<List<Issue>>> results = new ArrayList<>();
+        private List<LevelPack.Entry> batch = new ArrayList<>(BATCH_SIZE);
+        private int levels;
+
+        Batcher(ExecutorService pool, Semaphore inFlight) {
+            this.pool = pool;
+            this.inFlight = inFlight;
+        }
+
+        @Override
+        public void accept(LevelPack.Entry entry) {
+            levels++;
+            batch.add(entry);
+            if (batch.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<LevelPack.Entry> entries = batch;
+            batch = new ArrayList<>(BATCH_SIZE);
+            inFlight.acquireUninterruptibly();
+            results.add(pool.submit(() -> {
+                try {
+                    List<Issue> issues = new ArrayList<>();
+                    for (LevelPack.Entry entry : entries) {
+                        issues.addAll(lint(entry));
+                    }
+                    return issues;
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean failed = false;
+        if (args.length == 0) {
+            GameLevel builtIn = new GameLevel("", new HashSet<>());
+            builtIn.initializeLevels();
+            failed = print("built-in levels", lint(builtIn.getLevels()));
+        }
+        for (String arg : args) {
+            long start = System.nanoTime();
+            Report report = lint(Paths.get(arg));
+            failed |= print(arg, report);
+            System.out.printf("%s: %d levels in %d ms%n", arg, report.getLevelCount(), (System.nanoTime() - start) / 1_000_000);
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean print(String name, Report report) {
+        for (Issue issue : report.getIssues()) {
+            System.out.println(name + ": " + (issue.isError() ? "error: " : "warning: ") + issue);
+        }
+        System.out.println(name + ": " + report.getLevelCount() + " levels, " + report.getIssues().size() + " issues");
+        return report.hasErrors();
+    }
+}
@@ -0,0 +1,135 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Plain-text level packs, one level per line:
+ *
+ *     LETTERS<TAB>WORD,WORD,WORD[<TAB>DIFFICULTY]
+ *
+ * The difficulty column is optional and written by DifficultyModel. Blank lines and
+ * lines starting with '#' are ignored. Entries keep the words exactly as written
+ * (duplicates and case included) so the linter can report them.
+ */
+public class LevelPack {
+    private LevelPack() {
+    }
+
+    // One level as it appears in the file
+    public static class Entry {
+        private final int lineNumber;
+        private final String letters;
+        private final List<String> words;
+        private final double difficulty;
+
+        public Entry(int lineNumber, String letters, List<String> words) {
+            this(lineNumber, letters, words, Double.NaN);
+        }
+
+        public Entry(int lineNumber, String letters, List<String> words, double difficulty) {
+            this.lineNumber = lineNumber;
+            this.letters = letters;
+            this.words = Collections.unmodifiableList(words);
+            this.difficulty = difficulty;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getLetters() {
+            return letters;
+        }
+
+        public List<String> getWords() {
+            return words;
+        }
+
+        // NaN when the line has no difficulty column
+        public double getDifficulty() {
+            return difficulty;
+        }
+
+        public GameLevel toGameLevel() {
+            GameLevel level = new GameLevel(letters, new LinkedHashSet<>(words));
+            level.setDifficulty(difficulty);
+            return level;
+        }
+    }
+
+    // Parse one line; returns null for blank lines and comments
+    public static Entry parse(int lineNumber, String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+        String[] columns = trimmed.split("\t");
+        List<String> words = new ArrayList<>();
+        if (columns.length > 1) {
+            for (String word : columns[1].split(",")) {
+                if (!word.trim().isEmpty()) {
+                    words.add(word.trim());
+                }
+            }
+        }
+        double difficulty = Double.NaN;
+        if (columns.length > 2) {
+            try {
+                difficulty = Double.parseDouble(columns[2].trim());
+            } catch (NumberFormatException e) {
+                System.out.println("Ignoring invalid difficulty on line " + lineNumber + ": " + columns[2]);
+            }
+        }
+        return new Entry(lineNumber, columns[0].trim(), words, difficulty);
+    }
+
+    public static String format(GameLevel level) {
+        List<String> words = new ArrayList<>(level.getValidWords());
+        Collections.sort(words);
+        String line = level.getLetters() + "\t" + String.join(",", words);
+        if (level.hasDifficulty()) {
+            line += String.format(Locale.ROOT, "\t%.1f", level.getDifficulty());
+        }
+        return line;
+    }
+
+    // Feed every entry of the pack to the consumer in file order without loading the whole file
+    public static void read(Path path, Consumer<Entry> consumer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                Entry entry = parse(++lineNumber, line);
+                if (entry != null) {
+                    consumer.accept(entry);
+                }
+            }
+        }
+    }
+
+    public static List<GameLevel> load(Path path) throws IOException {
+        List<GameLevel> levels = new ArrayList<>();
+        read(path, entry -> levels.add(entry.toGameLevel()));
+        return levels;
+    }
+
+    public static void write(Path path, List<GameLevel> levels) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (GameLevel level : levels) {
+                writer.write(format(level));
+                writer.newLine();
+            }
+        }
+    }
+}
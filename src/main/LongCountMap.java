@@ -0,0 +1,103 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to long counts, without boxing. Zero is
+ * reserved as the empty-slot marker, so it cannot be used as a key.
+ */
+public final class LongCountMap {
+    private static final double MAX_LOAD = 0.6;
+
+    private long[] keys;
+    private long[] counts;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public LongCountMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expected / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        counts = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * MAX_LOAD);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    public void add(long key, long delta) {
+        int i = slot(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                counts[i] += delta;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        counts[i] = delta;
+        if (++size > resizeAt) {
+            grow();
+        }
+    }
+
+    public long get(long key) {
+        int i = slot(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return counts[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void addAll(LongCountMap other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != 0) {
+                add(other.keys[i], other.counts[i]);
+            }
+        }
+    }
+
+    // Keys whose count is at least minCount, in ascending order
+    public long[] sortedKeys(long minCount) {
+        long[] result = new long[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && counts[i] >= minCount) {
+                result[n++] = keys[i];
+            }
+        }
+        result = Arrays.copyOf(result, n);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int j = slot(oldKeys[i]);
+                while (keys[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                counts[j] = oldCounts[i];
+            }
+        }
+    }
+}
@@ -4,13 +4,24 @@ import javax.swing.SwingUtilities;
 
 public class Main {
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> {
+        EdtWatchdog.install();
+        Leaderboard.loadShared();
+        // Profiles are read off the EDT, and the first window waits for them
+        ProfileStore.loadShared().thenAccept(store -> SwingUtilities.invokeLater(() -> {
             try {
+                SoundManager.applySettings(store.current());
+
+                // A kiosk that lost power goes straight back into the interrupted game
+                GameSnapshot snapshot = GameSnapshot.load();
+                if (snapshot != null) {
+                    new Game(new Menu(null), snapshot);
+                    return;
+                }
                 Menu menu = new Menu(null);
                 menu.setVisible(true);
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        });
+        }));
     }
 }
\ No newline at end of file
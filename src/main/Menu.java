@@ -5,9 +5,14 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.awt.event.*;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
 
 public class Menu extends JFrame implements ActionListener {
     private JButton playButton;
+    private JButton dailyButton;
+    private JButton scoresButton;
     private JButton settingsButton;
     private JButton exitButton;
     private JLabel titleLabel;
@@ -19,7 +24,7 @@ public class Menu extends JFrame implements ActionListener {
 
     public Menu(Game game) {
         // Create background panel
-        backgroundPanel = new WordscapesBackground();
+        backgroundPanel = new WordscapesBackground("background.jpg");
         this.game = game;
         
         // Set content pane to the background panel with layout
@@ -40,6 +45,8 @@ public class Menu extends JFrame implements ActionListener {
 
         titleLabel = createTitleLabel();
         playButton = createStyledButton("Play", "play");
+        dailyButton = createStyledButton("Daily", "daily");
+        scoresButton = createStyledButton("Scores", "scores");
         settingsButton = createStyledButton("Settings", "settings");
         exitButton = createStyledButton("Exit", "exit");
 
@@ -53,6 +60,12 @@ public class Menu extends JFrame implements ActionListener {
         gbc.insets = new Insets(10, 0, 10, 0);
         backgroundPanel.add(playButton, gbc);
 
+        gbc.gridy++;
+        backgroundPanel.add(dailyButton, gbc);
+
+        gbc.gridy++;
+        backgroundPanel.add(scoresButton, gbc);
+
         gbc.gridy++;
         backgroundPanel.add(settingsButton, gbc);
 
@@ -135,6 +148,18 @@ public class Menu extends JFrame implements ActionListener {
                     this.dispose();
                 });
                 break;
+            case "daily":
+                SwingUtilities.invokeLater(() -> {
+                    LocalDate today = LocalDate.now();
+                    GameLevel puzzle = DailyPuzzles.forDate(today);
+                    Game game = new Game(this, List.of(puzzle), "DAILY " + today);
+                    game.setVisible(true);
+                    this.dispose();
+                });
+                break;
+            case "scores":
+                openScores();
+                break;
             case "settings":
                 openSettings();
                 break;
@@ -143,22 +168,104 @@ public class Menu extends JFrame implements ActionListener {
                 break;
         }
     }
+    // Top ten of today, all time and each built-in level
+    private void openScores() {
+        Leaderboard leaderboard = Leaderboard.sharedIfLoaded();
+        if (leaderboard == null) {
+            JOptionPane.showMessageDialog(this, "Scores are still loading, try again in a moment.", "Scores",
+                JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Today", createScoreList(leaderboard.today()));
+        tabs.addTab("All Time", createScoreList(leaderboard.allTime()));
+        GameLevel builtIn = new GameLevel("", new HashSet<>());
+        builtIn.initializeLevels();
+        for (int level = 1; level <= builtIn.getLevels().size(); level++) {
+            tabs.addTab("Level " + level, createScoreList(leaderboard.level(level)));
+        }
+        JOptionPane.showMessageDialog(this, tabs, "Scores", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private static JComponent createScoreList(Leaderboard.Board board) {
+        DefaultListModel<String> model = new DefaultListModel<>();
+        int place = 1;
+        for (Leaderboard.Entry entry : board.top(10)) {
+            model.addElement(String.format("%2d.  %-16s %6d", place++, entry.getPlayer(), entry.getScore()));
+        }
+        if (model.isEmpty()) {
+            model.addElement("No scores yet");
+        }
+        JList<String> list = new JList<>(model);
+        list.setFont(new Font("Monospaced", Font.PLAIN, 16));
+        list.setVisibleRowCount(10);
+        return new JScrollPane(list);
+    }
+
     private void openSettings() {
+        ProfileStore store = ProfileStore.shared();
+
         JPanel settingsPanel = new JPanel();
-        settingsPanel.setLayout(new GridLayout(3, 1, 10, 10));
+        settingsPanel.setLayout(new GridLayout(4, 1, 10, 10));
         settingsPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
+        JComboBox<String> playerBox = new JComboBox<>(store.names().toArray(new String[0]));
+        playerBox.setEditable(true);
+        playerBox.setSelectedItem(store.getCurrentPlayer());
         JCheckBox soundToggle = new JCheckBox("Sound");
         JCheckBox musicToggle = new JCheckBox("Music");
+        JCheckBox bonusToggle = new JCheckBox("Bonus words");
 
+        // Show the settings of whichever player is picked
+        Runnable showSettings = () -> {
+            Profile profile = store.get(selectedPlayer(playerBox));
+            soundToggle.setSelected(profile.isSoundEnabled());
+            musicToggle.setSelected(profile.isMusicEnabled());
+            bonusToggle.setSelected(profile.isBonusWordsEnabled());
+        };
+        showSettings.run();
+        playerBox.addActionListener(e -> showSettings.run());
+
+        settingsPanel.add(playerBox);
         settingsPanel.add(soundToggle);
         settingsPanel.add(musicToggle);
+        settingsPanel.add(bonusToggle);
 
         int result = JOptionPane.showConfirmDialog(this, settingsPanel, "Settings",
                 JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
 
         if (result == JOptionPane.OK_OPTION) {
-            JOptionPane.showMessageDialog(this, "Settings saved!", "Wordscapes", JOptionPane.INFORMATION_MESSAGE);
+            String player = selectedPlayer(playerBox);
+            Profile profile = store.get(player);
+            profile.setSoundEnabled(soundToggle.isSelected());
+            profile.setMusicEnabled(musicToggle.isSelected());
+            profile.setBonusWordsEnabled(bonusToggle.isSelected());
+            if (!player.equals(store.getCurrentPlayer())) {
+                store.setCurrentPlayer(player);
+            }
+
+            SoundManager.applySettings(profile);
+            if (profile.isMusicEnabled()) {
+                sound.playBackgroundMusic();
+            } else {
+                sound.stopBackgroundMusic();
+            }
+
+            // The write happens on the profile writer thread; confirm once it is on disk
+            store.put(profile).whenComplete((done, error) -> SwingUtilities.invokeLater(() -> {
+                if (error == null) {
+                    JOptionPane.showMessageDialog(this, "Settings saved!", "Wordscapes", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Settings could not be saved: " + error.getMessage(),
+                        "Wordscapes", JOptionPane.ERROR_MESSAGE);
+                }
+            }));
         }
     }
-}
\ No newline at end of file
+
+    private static String selectedPlayer(JComboBox<String> playerBox) {
+        Object selected = playerBox.getEditor().getItem();
+        String name = selected != null ? selected.toString().trim() : "";
+        return name.isEmpty() ? ProfileStore.shared().getCurrentPlayer() : name;
+    }
+}
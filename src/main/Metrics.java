@@ -0,0 +1,45 @@
+package main;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process registry of counters and latency histograms. Look metrics up once
+ * and keep them in a static field; recording is then lock-free.
+ */
+public final class Metrics {
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    // Counters by name, sorted
+    public static Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    // Histograms by name, sorted
+    public static Map<String, LatencyHistogram> histograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    public static void dump(PrintStream out) {
+        out.println("=== Metrics ===");
+        histograms().values().forEach(out::println);
+        counterValues().forEach((name, value) -> out.printf("%-22s %d%n", name, value));
+    }
+}
@@ -0,0 +1,74 @@
+package main;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Small translucent panel listing the current metrics, refreshed twice a second.
+ */
+class MetricsOverlay extends JComponent {
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final int LINE_HEIGHT = 15;
+    private static final int MARGIN = 8;
+
+    private final Timer refreshTimer;
+    private List<String> lines = new ArrayList<>();
+
+    MetricsOverlay() {
+        setOpaque(false);
+        refreshTimer = new Timer(500, e -> refresh());
+    }
+
+    void setActive(boolean active) {
+        setVisible(active);
+        if (active) {
+            refresh();
+            refreshTimer.start();
+        } else {
+            refreshTimer.stop();
+        }
+    }
+
+    private void refresh() {
+        List<String> updated = new ArrayList<>();
+        for (LatencyHistogram histogram : Metrics.histograms().values()) {
+            updated.add(histogram.toString());
+        }
+        for (Map.Entry<String, Long> counter : Metrics.counterValues().entrySet()) {
+            updated.add(String.format("%-22s %d", counter.getKey(), counter.getValue()));
+        }
+        lines = updated;
+
+        // Anchor to the top-right corner of the parent
+        Container parent = getParent();
+        if (parent != null) {
+            FontMetrics fm = getFontMetrics(FONT);
+            int width = 0;
+            for (String line : lines) {
+                width = Math.max(width, fm.stringWidth(line));
+            }
+            width += 2 * MARGIN;
+            int height = lines.size() * LINE_HEIGHT + 2 * MARGIN;
+            setBounds(parent.getWidth() - width - 20, 80, width, height);
+        }
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setColor(new Color(0, 0, 0, 170));
+        g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 10, 10);
+        g2d.setColor(new Color(200, 255, 200));
+        g2d.setFont(FONT);
+        int y = MARGIN + LINE_HEIGHT - 3;
+        for (String line : lines) {
+            g2d.drawString(line, MARGIN, y);
+            y += LINE_HEIGHT;
+        }
+        g2d.dispose();
+    }
+}
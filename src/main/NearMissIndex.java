@@ -0,0 +1,159 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds words within a small edit distance of a guess.
+ *
+ * The words are stored in a trie and a query walks it while carrying one row of the
+ * Levenshtein matrix per depth. That is the Levenshtein automaton for the guess run
+ * in lock-step with the trie: a branch is dropped as soon as every cell of its row
+ * exceeds the distance, so only a thin slice of a large dictionary is ever visited.
+ * The trie lives in flat arrays (first child / next sibling) to keep it compact.
+ */
+public class NearMissIndex {
+    private static final int ROOT = 0;
+
+    private char[] label = new char[1024];
+    private int[] firstChild = new int[1024];
+    private int[] nextSibling = new int[1024];
+    private String[] terminal = new String[1024]; // The word ending at a node, or null
+    private int nodeCount = 1;
+    private int size;
+    private int maxLength;
+
+    public NearMissIndex() {
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(nextSibling, -1);
+    }
+
+    public NearMissIndex(Collection<String> words) {
+        this();
+        for (String word : words) {
+            add(word);
+        }
+    }
+
+    public void add(String word) {
+        int node = ROOT;
+        for (int i = 0; i < word.length(); i++) {
+            node = childOrCreate(node, word.charAt(i));
+        }
+        if (terminal[node] == null) {
+            terminal[node] = word;
+            size++;
+            maxLength = Math.max(maxLength, word.length());
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int childOrCreate(int node, char c) {
+        int previous = -1;
+        for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+            if (label[child] == c) {
+                return child;
+            }
+            previous = child;
+        }
+
+        if (nodeCount == label.length) {
+            int capacity = label.length * 2;
+            label = Arrays.copyOf(label, capacity);
+            terminal = Arrays.copyOf(terminal, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            Arrays.fill(firstChild, nodeCount, capacity, -1);
+            Arrays.fill(nextSibling, nodeCount, capacity, -1);
+        }
+        int created = nodeCount++;
+        label[created] = c;
+        if (previous == -1) {
+            firstChild[node] = created;
+        } else {
+            nextSibling[previous] = created;
+        }
+        return created;
+    }
+
+    // Words within maxDistance of the query, closest first
+    public List<Match> query(String word, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        int columns = word.length() + 1;
+        int depthLimit = Math.min(maxLength, word.length() + maxDistance);
+        int[][] rows = new int[depthLimit + 1][columns];
+        for (int j = 0; j < columns; j++) {
+            rows[0][j] = Math.min(j, maxDistance + 1);
+        }
+
+        for (int child = firstChild[ROOT]; child != -1; child = nextSibling[child]) {
+            walk(child, 1, word, maxDistance, rows, depthLimit, matches);
+        }
+        matches.sort(Comparator.comparingInt(Match::getDistance).thenComparing(Match::getWord));
+        return matches;
+    }
+
+    // Only cells within maxDistance of the diagonal can stay under maxDistance, so each row
+    // is computed over that band; the cells just outside it are set to "too far"
+    private void walk(int node, int depth, String word, int maxDistance, int[][] rows, int depthLimit, List<Match> matches) {
+        int[] previous = rows[depth - 1];
+        int[] current = rows[depth];
+        int tooFar = maxDistance + 1;
+        int length = word.length();
+        int lo = Math.max(1, depth - maxDistance);
+        int hi = Math.min(length, depth + maxDistance);
+        char c = label[node];
+
+        current[0] = depth <= maxDistance ? depth : tooFar;
+        current[lo - 1] = lo == 1 ? current[0] : tooFar;
+        int rowMin = current[lo - 1];
+        for (int j = lo; j <= hi; j++) {
+            int cost = word.charAt(j - 1) == c ? 0 : 1;
+            int value = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            current[j] = Math.min(value, tooFar);
+            rowMin = Math.min(rowMin, current[j]);
+        }
+        if (hi < length) {
+            current[hi + 1] = tooFar;
+        }
+
+        if (terminal[node] != null && hi == length && current[length] <= maxDistance) {
+            matches.add(new Match(terminal[node], current[length]));
+        }
+        if (rowMin > maxDistance || depth == depthLimit) {
+            return;
+        }
+        for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+            walk(child, depth + 1, word, maxDistance, rows, depthLimit, matches);
+        }
+    }
+
+    public static class Match {
+        private final String word;
+        private final int distance;
+
+        Match(String word, int distance) {
+            this.word = word;
+            this.distance = distance;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+
+        @Override
+        public String toString() {
+            return word + "(" + distance + ")";
+        }
+    }
+}
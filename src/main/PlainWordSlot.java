@@ -0,0 +1,47 @@
+package main;
+
+/**
+ * A WordSlot that is only a few fields, for sessions played without a screen: the
+ * replayer, the simulator and the session server.
+ */
+class PlainWordSlot implements WordSlot {
+    private final char[] shownLetters;
+    private boolean filled;
+
+    PlainWordSlot(String word) {
+        shownLetters = new char[word.length()];
+    }
+
+    @Override
+    public void fillWord(String word) {
+        word.getChars(0, shownLetters.length, shownLetters, 0);
+        filled = true;
+    }
+
+    @Override
+    public boolean isFilled() {
+        return filled;
+    }
+
+    @Override
+    public void setFilled(boolean filled) {
+        this.filled = filled;
+    }
+
+    @Override
+    public void revealLetter(int position, char letter) {
+        if (position >= 0 && position < shownLetters.length) {
+            shownLetters[position] = letter;
+        }
+    }
+
+    @Override
+    public boolean isLetterRevealed(int position) {
+        return position >= 0 && position < shownLetters.length && shownLetters[position] != 0;
+    }
+
+    @Override
+    public char[] getShownLetters() {
+        return shownLetters.clone();
+    }
+}
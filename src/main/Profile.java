@@ -0,0 +1,99 @@
+package main;
+
+/**
+ * One local player: their progress and their settings. Profiles handed out by the
+ * ProfileStore are copies, so changing one has no effect until it is put back.
+ */
+public class Profile {
+    private final String name;
+    private int bestScore;
+    private int highestLevel;    // Highest built-in level completed
+    private int gamesPlayed;
+    private long totalScore;
+    private boolean soundEnabled = true;
+    private boolean musicEnabled = true;
+    private boolean bonusWordsEnabled = true;
+
+    public Profile(String name) {
+        this.name = name;
+    }
+
+    public Profile copy() {
+        Profile copy = new Profile(name);
+        copy.bestScore = bestScore;
+        copy.highestLevel = highestLevel;
+        copy.gamesPlayed = gamesPlayed;
+        copy.totalScore = totalScore;
+        copy.soundEnabled = soundEnabled;
+        copy.musicEnabled = musicEnabled;
+        copy.bonusWordsEnabled = bonusWordsEnabled;
+        return copy;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    public void setBestScore(int bestScore) {
+        this.bestScore = bestScore;
+    }
+
+    public int getHighestLevel() {
+        return highestLevel;
+    }
+
+    public void setHighestLevel(int highestLevel) {
+        this.highestLevel = highestLevel;
+    }
+
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public void setGamesPlayed(int gamesPlayed) {
+        this.gamesPlayed = gamesPlayed;
+    }
+
+    public long getTotalScore() {
+        return totalScore;
+    }
+
+    public void setTotalScore(long totalScore) {
+        this.totalScore = totalScore;
+    }
+
+    public boolean isSoundEnabled() {
+        return soundEnabled;
+    }
+
+    public void setSoundEnabled(boolean soundEnabled) {
+        this.soundEnabled = soundEnabled;
+    }
+
+    public boolean isMusicEnabled() {
+        return musicEnabled;
+    }
+
+    public void setMusicEnabled(boolean musicEnabled) {
+        this.musicEnabled = musicEnabled;
+    }
+
+    public boolean isBonusWordsEnabled() {
+        return bonusWordsEnabled;
+    }
+
+    public void setBonusWordsEnabled(boolean bonusWordsEnabled) {
+        this.bonusWordsEnabled = bonusWordsEnabled;
+    }
+
+    // Fold a finished game into the totals
+    public void recordGame(int score) {
+        gamesPlayed++;
+        totalScore += score;
+        bestScore = Math.max(bestScore, score);
+    }
+}
@@ -0,0 +1,460 @@
+package main;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Player profiles for every player on this machine, kept in memory and made durable
+ * with a write-ahead log.
+ *
+ * A change is applied to memory at once and queued for the writer thread, which
+ * appends everything queued since its last pass to profiles.wal in one write and one
+ * fsync (group commit), then completes the futures of those changes. When the log
+ * grows past a few megabytes the writer compacts it: all profiles go into
+ * profiles.snapshot (written to a temp file, synced and renamed) and the log is
+ * truncated.
+ *
+ * Every record carries a sequence number and a CRC. Loading reads the snapshot, then
+ * replays log records newer than what the snapshot holds, and cuts the log at the
+ * first torn or corrupt record a crash may have left. The directory comes from
+ * -Dwordscapes.profiles (default save/profiles). The shared store is loaded off the
+ * EDT by loadShared(); if the directory cannot be opened it keeps profiles in memory
+ * only, so the game still starts.
+ */
+public class ProfileStore {
+    private static final String DEFAULT_DIR = "save/profiles";
+    private static final String DEFAULT_PLAYER = "Player";
+    private static final int SNAPSHOT_MAGIC = 0x50524F46; // "PROF"
+    private static final int VERSION = 1;
+    private static final long COMPACT_BYTES = 4 << 20;
+    private static final int MAX_BATCH = 1024;
+
+    private static final byte RECORD_PROFILE = 1;
+    private static final byte RECORD_CURRENT_PLAYER = 2;
+
+    private static final LatencyHistogram COMMIT_TIME = Metrics.histogram("profiles.commit");
+    private static CompletableFuture<ProfileStore> loading;
+
+    private final Path snapshotPath;
+    private final Path walPath;
+    private final Map<String, Versioned> profiles = new ConcurrentHashMap<>();
+    private volatile Versioned currentPlayer = new Versioned(0, null);
+    private final AtomicLong sequence = new AtomicLong();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final FileChannel wal; // Null for a store kept in memory only
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // A profile (or the current player's name) with the sequence number of its last change
+    private static class Versioned {
+        final long seq;
+        final Profile profile;
+        final String name;
+
+        Versioned(long seq, Profile profile) {
+            this(seq, profile, profile != null ? profile.getName() : null);
+        }
+
+        Versioned(long seq, Profile profile, String name) {
+            this.seq = seq;
+            this.profile = profile;
+            this.name = name;
+        }
+    }
+
+    private static final Pending CLOSE = new Pending(new byte[0]); // Tells the writer to stop
+
+    private static class Pending {
+        final byte[] record;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Pending(byte[] record) {
+            this.record = record;
+        }
+    }
+
+    private ProfileStore(Path dir) throws IOException {
+        if (dir == null) {
+            snapshotPath = null;
+            walPath = null;
+            wal = null;
+        } else {
+            Files.createDirectories(dir);
+            snapshotPath = dir.resolve("profiles.snapshot");
+            walPath = dir.resolve("profiles.wal");
+            loadSnapshot();
+            wal = FileChannel.open(walPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            replayLog();
+        }
+
+        writer = new Thread(this::writeLoop, "profile-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static ProfileStore open(Path dir) throws IOException {
+        return new ProfileStore(dir);
+    }
+
+    // A store that keeps its profiles in memory only, for when the directory cannot be used
+    static ProfileStore inMemory() {
+        try {
+            return new ProfileStore(null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Cannot happen without files
+        }
+    }
+
+    // Start opening the store in -Dwordscapes.profiles off the EDT, once; it is flushed when the JVM exits
+    public static synchronized CompletableFuture<ProfileStore> loadShared() {
+        if (loading == null) {
+            Path dir = Paths.get(System.getProperty("wordscapes.profiles", DEFAULT_DIR));
+            loading = CompletableFuture.supplyAsync(() -> {
+                ProfileStore store;
+                try {
+                    store = open(dir);
+                } catch (IOException e) {
+                    System.out.println("Error opening profile store in " + dir + ": " + e.getMessage()
+                        + " (profiles will not be saved)");
+                    store = inMemory();
+                }
+                Runtime.getRuntime().addShutdownHook(new Thread(store::close, "profile-flush"));
+                return store;
+            });
+        }
+        return loading;
+    }
+
+    // The shared store; waits for loadShared() if it has not finished, which Main avoids on the EDT
+    public static ProfileStore shared() {
+        return loadShared().join();
+    }
+
+    // --- Reads, from memory ---
+
+    // A copy of the named profile, or a new profile with default settings
+    public Profile get(String name) {
+        Versioned versioned = profiles.get(name);
+        return versioned != null ? versioned.profile.copy() : new Profile(name);
+    }
+
+    public List<String> names() {
+        return new ArrayList<>(new TreeSet<>(profiles.keySet()));
+    }
+
+    public int size() {
+        return profiles.size();
+    }
+
+    public String getCurrentPlayer() {
+        String name = currentPlayer.name;
+        return name != null ? name : System.getProperty("wordscapes.player", DEFAULT_PLAYER);
+    }
+
+    public Profile current() {
+        return get(getCurrentPlayer());
+    }
+
+    // --- Writes: applied to memory now, durable when the returned future completes ---
+
+    public CompletableFuture<Void> put(Profile profile) {
+        Versioned versioned = new Versioned(sequence.incrementAndGet(), profile.copy());
+        profiles.merge(profile.getName(), versioned, (old, updated) -> updated.seq > old.seq ? updated : old);
+        return append(encodeProfile(versioned));
+    }
+
+    public CompletableFuture<Void> setCurrentPlayer(String name) {
+        Versioned versioned = new Versioned(sequence.incrementAndGet(), null, name);
+        currentPlayer = versioned;
+        return append(encodeCurrentPlayer(versioned));
+    }
+
+    private CompletableFuture<Void> append(byte[] payload) {
+        Pending pending = new Pending(frame(payload));
+        if (closed) {
+            pending.done.completeExceptionally(new IllegalStateException("profile store is closed"));
+        } else {
+            queue.add(pending);
+        }
+        return pending.done;
+    }
+
+    // Write whatever is queued, then stop the writer
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(CLOSE);
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Writer thread ---
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        boolean stop = false;
+        while (!stop) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH);
+            if (batch.remove(CLOSE)) {
+                queue.drainTo(batch); // Anything that slipped in while closing
+                stop = true;
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+            if (!stop) {
+                compactIfNeeded();
+            }
+        }
+        try {
+            if (wal != null) {
+                wal.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Error closing profile log: " + e.getMessage());
+        }
+    }
+
+    // One write and one fsync for the whole batch
+    private void commit(List<Pending> batch) {
+        if (wal == null) {
+            for (Pending pending : batch) {
+                pending.done.complete(null);
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        int size = 0;
+        for (Pending pending : batch) {
+            size += pending.record.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (Pending pending : batch) {
+            buffer.put(pending.record);
+        }
+        buffer.flip();
+        try {
+            long position = wal.size();
+            while (buffer.hasRemaining()) {
+                position += wal.write(buffer, position);
+            }
+            wal.force(false);
+            for (Pending pending : batch) {
+                pending.done.complete(null);
+            }
+        } catch (IOException e) {
+            System.out.println("Error writing profile log: " + e.getMessage());
+            for (Pending pending : batch) {
+                pending.done.completeExceptionally(e);
+            }
+        }
+        COMMIT_TIME.recordSince(start);
+    }
+
+    private void compactIfNeeded() {
+        try {
+            if (wal == null || wal.size() < COMPACT_BYTES) {
+                return;
+            }
+            writeSnapshot();
+            wal.truncate(0);
+            wal.force(true);
+        } catch (IOException e) {
+            System.out.println("Error compacting profile log: " + e.getMessage());
+        }
+    }
+
+    // Everything in memory, which can be newer than the log; replay skips what it already holds
+    private void writeSnapshot() throws IOException {
+        List<Versioned> all = new ArrayList<>(profiles.values());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + all.size() * 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(VERSION);
+        byte[] current = encodeCurrentPlayer(currentPlayer);
+        out.writeInt(current.length);
+        out.write(current);
+        out.writeInt(all.size());
+        for (Versioned versioned : all) {
+            byte[] record = encodeProfile(versioned);
+            out.writeInt(record.length);
+            out.write(record);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+
+        Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // --- Loading ---
+
+    private void loadSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        byte[] data = Files.readAllBytes(snapshotPath);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, Math.max(0, data.length - Long.BYTES));
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (data.length < 12 || ByteBuffer.wrap(data, data.length - Long.BYTES, Long.BYTES).getLong() != crc.getValue()
+                || in.readInt() != SNAPSHOT_MAGIC || in.readInt() != VERSION) {
+            throw new IOException("corrupt profile snapshot " + snapshotPath);
+        }
+        byte[] current = new byte[in.readInt()];
+        in.readFully(current);
+        apply(current);
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            byte[] record = new byte[in.readInt()];
+            in.readFully(record);
+            apply(record);
+        }
+    }
+
+    private void replayLog() throws IOException {
+        ByteBuffer log = ByteBuffer.allocate((int) wal.size());
+        while (log.hasRemaining() && wal.read(log, log.position()) > 0) {
+            // Read the whole log; compaction keeps it small
+        }
+        log.flip();
+
+        int good = 0;
+        CRC32 crc = new CRC32();
+        while (log.remaining() >= 8) {
+            int length = log.getInt();
+            long expected = log.getInt() & 0xFFFFFFFFL;
+            if (length <= 0 || length > log.remaining()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            log.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if (crc.getValue() != expected) {
+                break;
+            }
+            apply(payload);
+            good = log.position();
+        }
+        if (good < wal.size()) {
+            System.out.println("Profile log cut at byte " + good + " of " + wal.size() + " (incomplete write)");
+            wal.truncate(good);
+            wal.force(true);
+        }
+    }
+
+    // Apply one record if it is newer than what memory holds
+    private void apply(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        long seq = in.readLong();
+        sequence.accumulateAndGet(seq, Math::max);
+        if (type == RECORD_CURRENT_PLAYER) {
+            String name = in.readUTF();
+            if (seq > currentPlayer.seq) {
+                currentPlayer = new Versioned(seq, null, name.isEmpty() ? null : name);
+            }
+            return;
+        }
+        Profile profile = new Profile(in.readUTF());
+        profile.setBestScore(in.readInt());
+        profile.setHighestLevel(in.readInt());
+        profile.setGamesPlayed(in.readInt());
+        profile.setTotalScore(in.readLong());
+        int flags = in.readByte();
+        profile.setSoundEnabled((flags & 1) != 0);
+        profile.setMusicEnabled((flags & 2) != 0);
+        profile.setBonusWordsEnabled((flags & 4) != 0);
+
+        Versioned existing = profiles.get(profile.getName());
+        if (existing == null || seq > existing.seq) {
+            profiles.put(profile.getName(), new Versioned(seq, profile));
+        }
+    }
+
+    // --- Encoding ---
+
+    private static byte[] encodeProfile(Versioned versioned) {
+        Profile profile = versioned.profile;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_PROFILE);
+            out.writeLong(versioned.seq);
+            out.writeUTF(profile.getName());
+            out.writeInt(profile.getBestScore());
+            out.writeInt(profile.getHighestLevel());
+            out.writeInt(profile.getGamesPlayed());
+            out.writeLong(profile.getTotalScore());
+            out.writeByte((profile.isSoundEnabled() ? 1 : 0) | (profile.isMusicEnabled() ? 2 : 0)
+                | (profile.isBonusWordsEnabled() ? 4 : 0));
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Cannot happen writing to memory
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeCurrentPlayer(Versioned versioned) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_CURRENT_PLAYER);
+            out.writeLong(versioned.seq);
+            out.writeUTF(versioned.name != null ? versioned.name : "");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Log framing: length, CRC32 of the payload, payload
+    private static byte[] frame(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer framed = ByteBuffer.allocate(8 + payload.length);
+        framed.putInt(payload.length);
+        framed.putInt((int) crc.getValue());
+        framed.put(payload);
+        return framed.array();
+    }
+}
@@ -0,0 +1,86 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends race standings to the players on a fixed tick. A room that has had a word
+ * found since the last tick puts itself on the dirty queue once; each tick takes the
+ * dirty rooms off it and has every one of them send a single delta to each of its
+ * players, however many words were found in between. Rooms where nothing happened
+ * are never looked at, so the cost of a tick follows the words found, not the number
+ * of rooms open.
+ *
+ * One daemon thread does all rooms; the tick is -Dwordscapes.raceTick milliseconds
+ * (default 100).
+ */
+class RaceBroadcaster implements AutoCloseable {
+    private static final LatencyHistogram TICK_TIME = Metrics.histogram("race.tick");
+    private static final LongAdder DELTAS = Metrics.counter("race.deltas");
+
+    private static RaceBroadcaster shared;
+
+    private final ConcurrentLinkedQueue<RaceRoom> dirtyRooms = new ConcurrentLinkedQueue<>();
+    private final List<RaceRoom> nextTick = new ArrayList<>();
+    private final ScheduledExecutorService thread;
+    private final long tickMillis;
+    private long tick;
+
+    RaceBroadcaster(long tickMillis) {
+        this.tickMillis = tickMillis;
+        thread = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "race-broadcast");
+            t.setDaemon(true);
+            return t;
+        });
+        thread.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    static synchronized RaceBroadcaster shared() {
+        if (shared == null) {
+            shared = new RaceBroadcaster(Long.getLong("wordscapes.raceTick", 100));
+        }
+        return shared;
+    }
+
+    long getTickMillis() {
+        return tickMillis;
+    }
+
+    // Called by a room the first time something changes after its last send
+    void schedule(RaceRoom room) {
+        dirtyRooms.add(room);
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        tick++;
+        try {
+            RaceRoom room;
+            while ((room = dirtyRooms.poll()) != null) {
+                // A room that has already sent this tick waits for the next one
+                if (room.lastTick == tick) {
+                    nextTick.add(room);
+                    continue;
+                }
+                room.lastTick = tick;
+                DELTAS.add(room.flush());
+            }
+            dirtyRooms.addAll(nextTick);
+            nextTick.clear();
+        } catch (RuntimeException e) {
+            System.out.println("Race broadcast failed: " + e);
+        }
+        TICK_TIME.recordSince(start);
+    }
+
+    @Override
+    public void close() {
+        thread.shutdownNow();
+    }
+}
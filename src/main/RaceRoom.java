@@ -0,0 +1,373 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A head-to-head race: a few players solving the same level at once, each seeing how
+ * many words the others have found. Players report a found word with found(), which
+ * only adds an event to the room's lock-free queue. The RaceBroadcaster drains the
+ * queue on its next tick, keeps the latest count of each player, and gives every
+ * player one delta holding just the counts that changed, so a burst of words costs a
+ * single message per player.
+ *
+ * A player that cannot take a delta when it is due (deliver returns false) is sent
+ * the whole standings on a later tick instead, so nothing is lost by skipping it.
+ * Everyone gets the whole standings on the first tick.
+ *
+ * main runs rooms of in-process players against one broadcaster:
+ *
+ *     java main.RaceRoom [rooms] [players per room] [seconds] [words per player per second]
+ */
+class RaceRoom {
+    private static final LatencyHistogram DELAY = Metrics.histogram("race.delay");
+
+    // Someone in the race
+    interface Member {
+        // Show the standings; false if they cannot be taken now, and they are sent again next tick
+        boolean deliver(Standings standings);
+    }
+
+    // Found-word counts of some players, or of all of them
+    static class Standings {
+        final int[] players;
+        final int[] found;
+        final boolean full;
+
+        Standings(int[] players, int[] found, boolean full) {
+            this.players = players;
+            this.found = found;
+            this.full = full;
+        }
+    }
+
+    private static class Event {
+        final int player;
+        final int found; // LEFT when the player has gone
+        final long at;
+
+        Event(int player, int found) {
+            this.player = player;
+            this.found = found;
+            at = System.nanoTime();
+        }
+    }
+
+    private static final int LEFT = -1;
+
+    private final int levelIndex;
+    private final GameLevel level;
+    private final RaceBroadcaster broadcaster;
+    private final ConcurrentLinkedQueue<Event> events = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicInteger playing;
+
+    // Only the broadcaster thread touches these
+    private final Member[] members;
+    private final int[] found;
+    private final int[] sent;
+    private final boolean[] stale;
+    long lastTick;
+
+    RaceRoom(int levelIndex, GameLevel level, List<? extends Member> members, RaceBroadcaster broadcaster) {
+        this.levelIndex = levelIndex;
+        this.level = level;
+        this.broadcaster = broadcaster;
+        this.members = members.toArray(new Member[0]);
+        found = new int[this.members.length];
+        sent = new int[this.members.length];
+        stale = new boolean[this.members.length];
+        Arrays.fill(stale, true);
+        playing = new AtomicInteger(this.members.length);
+        schedule();
+    }
+
+    int getLevelIndex() {
+        return levelIndex;
+    }
+
+    GameLevel getLevel() {
+        return level;
+    }
+
+    int getPlayerCount() {
+        return members.length;
+    }
+
+    int getWordCount() {
+        return level.getValidWords().size();
+    }
+
+    // True once every player has left
+    boolean isOver() {
+        return playing.get() == 0;
+    }
+
+    // A player's found-word count changed; from any thread
+    void found(int player, int count) {
+        events.add(new Event(player, count));
+        schedule();
+    }
+
+    // The player will take no more standings; their count stays on the board
+    void leave(int player) {
+        events.add(new Event(player, LEFT));
+        schedule();
+        playing.decrementAndGet();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            broadcaster.schedule(this);
+        }
+    }
+
+    // On the broadcaster thread: apply the queued events and send; returns the deltas sent
+    int flush() {
+        scheduled.set(false);
+        long oldest = 0;
+        Event event;
+        while ((event = events.poll()) != null) {
+            if (oldest == 0) {
+                oldest = event.at;
+            }
+            if (event.found == LEFT) {
+                members[event.player] = null;
+            } else {
+                found[event.player] = event.found;
+            }
+        }
+
+        int changes = 0;
+        for (int i = 0; i < found.length; i++) {
+            if (found[i] != sent[i]) {
+                changes++;
+            }
+        }
+        Standings delta = null;
+        if (changes > 0) {
+            int[] players = new int[changes];
+            int[] counts = new int[changes];
+            for (int i = 0, n = 0; i < found.length; i++) {
+                if (found[i] != sent[i]) {
+                    players[n] = i;
+                    counts[n++] = found[i];
+                    sent[i] = found[i];
+                }
+            }
+            delta = new Standings(players, counts, false);
+        }
+
+        int deltas = 0;
+        boolean retry = false;
+        Standings full = null;
+        for (int i = 0; i < members.length; i++) {
+            Member member = members[i];
+            if (member == null) {
+                continue;
+            }
+            Standings standings = delta;
+            if (stale[i]) {
+                if (full == null) {
+                    int[] players = new int[found.length];
+                    for (int p = 0; p < players.length; p++) {
+                        players[p] = p;
+                    }
+                    full = new Standings(players, found.clone(), true);
+                }
+                standings = full;
+            }
+            if (standings == null) {
+                continue;
+            }
+            stale[i] = !member.deliver(standings);
+            if (stale[i]) {
+                retry = true;
+            } else {
+                deltas++;
+            }
+        }
+        if (oldest != 0) {
+            DELAY.recordSince(oldest);
+        }
+        if (retry) {
+            schedule();
+        }
+        return deltas;
+    }
+
+    // An in-process player: a headless session that spells answers, or now and then a
+    // wrong word, at a set rate and keeps the standings it is sent
+    static class LocalPlayer implements Member {
+        private final GameSession session;
+        private final SplittableRandom random;
+        private final int[] view;
+        private RaceRoom room;
+        private int index;
+        private volatile boolean done;
+        long deltas;
+
+        LocalPlayer(List<GameLevel> levels, Map<Integer, GameSession.Prepared> preparedLevels, int levelIndex,
+                int players, long seed) {
+            session = new GameSession(levels, preparedLevels, PlainWordSlot::new, GameRules.DEFAULT, seed, false, false, null);
+            session.loadLevel(levelIndex, true);
+            random = new SplittableRandom(seed);
+            view = new int[players];
+        }
+
+        void join(RaceRoom room, int index) {
+            this.room = room;
+            this.index = index;
+        }
+
+        @Override
+        public synchronized boolean deliver(Standings standings) {
+            for (int i = 0; i < standings.players.length; i++) {
+                view[standings.players[i]] = standings.found[i];
+            }
+            deltas++;
+            return true;
+        }
+
+        synchronized int[] getView() {
+            return view.clone();
+        }
+
+        int getFound() {
+            return session.getSolvedWords().size();
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        // One word: an answer still to find most of the time, otherwise the letters shuffled
+        void move() {
+            if (done) {
+                return;
+            }
+            String word;
+            List<String> left = new ArrayList<>(room.getLevel().getValidWords());
+            left.removeAll(session.getSolvedWords());
+            if (!left.isEmpty() && random.nextInt(10) < 7) {
+                word = left.get(random.nextInt(left.size()));
+            } else {
+                StringBuilder letters = new StringBuilder();
+                for (char c : session.getLetterOrder()) {
+                    letters.insert(random.nextInt(letters.length() + 1), c);
+                }
+                word = letters.substring(0, 3 + random.nextInt(letters.length() - 2));
+            }
+            session.startSwipe();
+            for (char c : word.toCharArray()) {
+                session.swipeLetter(c);
+            }
+            GameSession.Check check = session.endSwipe();
+            if (check != null && check.filled) {
+                room.found(index, getFound());
+            }
+            if (check != null && check.levelComplete) {
+                done = true;
+                room.leave(index);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int playersPerRoom = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        double wordsPerSecond = args.length > 3 ? Double.parseDouble(args[3]) : 0.5;
+
+        GameLevel builtIn = new GameLevel("", new HashSet<>());
+        builtIn.initializeLevels();
+        List<GameLevel> levels = builtIn.getLevels();
+        Map<Integer, GameSession.Prepared> preparedLevels = new ConcurrentHashMap<>();
+        RaceBroadcaster broadcaster = RaceBroadcaster.shared();
+        ScheduledExecutorService players = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread t = new Thread(r, "race-player");
+            t.setDaemon(true);
+            return t;
+        });
+        LongAdder moves = Metrics.counter("race.moves");
+        SplittableRandom random = new SplittableRandom(7);
+        long interval = (long) (1e9 / wordsPerSecond);
+
+        List<RaceRoom> rooms = new ArrayList<>();
+        List<List<LocalPlayer>> roomPlayers = new ArrayList<>();
+        for (int r = 0; r < roomCount; r++) {
+            int levelIndex = random.nextInt(levels.size());
+            List<LocalPlayer> members = new ArrayList<>();
+            for (int p = 0; p < playersPerRoom; p++) {
+                members.add(new LocalPlayer(levels, preparedLevels, levelIndex, playersPerRoom, random.nextLong()));
+            }
+            RaceRoom room = new RaceRoom(levelIndex, levels.get(levelIndex), members, broadcaster);
+            for (int p = 0; p < playersPerRoom; p++) {
+                LocalPlayer player = members.get(p);
+                player.join(room, p);
+                players.scheduleAtFixedRate(() -> {
+                    player.move();
+                    moves.increment();
+                }, random.nextLong(interval), interval, TimeUnit.NANOSECONDS);
+            }
+            rooms.add(room);
+            roomPlayers.add(members);
+        }
+        System.out.printf("%d rooms of %d players, %.1f words each per second, %d ms tick%n",
+            roomCount, playersPerRoom, wordsPerSecond, broadcaster.getTickMillis());
+
+        LongAdder deltas = Metrics.counter("race.deltas");
+        LatencyHistogram tickTime = Metrics.histogram("race.tick");
+        long lastMoves = 0;
+        long lastDeltas = 0;
+        for (int s = 1; s <= seconds; s++) {
+            Thread.sleep(1000);
+            int over = 0;
+            for (RaceRoom room : rooms) {
+                if (room.isOver()) {
+                    over++;
+                }
+            }
+            System.out.printf("%3ds: %d moves/s, %d deltas/s, %d rooms finished, tick %s%n",
+                s, moves.sum() - lastMoves, deltas.sum() - lastDeltas, over, tickTime);
+            lastMoves = moves.sum();
+            lastDeltas = deltas.sum();
+        }
+        players.shutdown();
+        players.awaitTermination(5, TimeUnit.SECONDS);
+        Thread.sleep(3 * broadcaster.getTickMillis());
+
+        // Everyone still in a race should see the counts the others really have
+        int wrong = 0;
+        long maxDeltas = 0;
+        for (List<LocalPlayer> members : roomPlayers) {
+            for (LocalPlayer player : members) {
+                maxDeltas = Math.max(maxDeltas, player.deltas);
+                if (player.isDone()) {
+                    continue;
+                }
+                int[] view = player.getView();
+                for (int i = 0; i < members.size(); i++) {
+                    if (view[i] != members.get(i).getFound()) {
+                        wrong++;
+                    }
+                }
+            }
+        }
+        System.out.printf("%d wrong counts seen, at most %d deltas to one player (%d ticks)%n",
+            wrong, maxDeltas, seconds * 1000 / broadcaster.getTickMillis());
+        Metrics.dump(System.out);
+    }
+}
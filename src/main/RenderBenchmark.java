@@ -0,0 +1,271 @@
+package main;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.GridLayout;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+
+/**
+ * Measures what painting costs, without a screen. Each scene is laid out at 1080p,
+ * 1440p and 4K and painted into a BufferedImage frame after frame on the EDT, moving
+ * the falling letters on between frames as the background's timer would. Frame times
+ * go into a LatencyHistogram, and the bytes the EDT allocated come from the JVM's
+ * per-thread allocation counter.
+ *
+ * The scenes are background (WordscapesBackground with its image and each number of
+ * falling letters), wordboxes (the answer boxes of a level, some filled and some
+ * hinted) and board (the whole game screen). Game is a full-screen frame, which cannot
+ * be made headless, so the board scene is the GameBoard that Game puts in its frame,
+ * showing a level of a headless GameSession.
+ *
+ *     java -Djava.awt.headless=true main.RenderBenchmark [frames] [letter counts] [scenes]
+ *
+ * e.g. 200 0,100,1000 background,board
+ */
+public class RenderBenchmark {
+    private static final int[][] RESOLUTIONS = {{1920, 1080}, {2560, 1440}, {3840, 2160}};
+    private static final String BACKGROUND_IMAGE = "bg1.jpg";
+    private static final String[] LEVEL_WORDS = {"AGAW", "KAGAW", "KAWANG", "KAMINGAW", "KAMI", "MINAW"};
+    private static final int BOARD_LEVEL = 4;
+
+    private final int frames;
+    private final int warmupFrames;
+    private final com.sun.management.ThreadMXBean threads;
+
+    public RenderBenchmark(int frames) {
+        this.frames = frames;
+        this.warmupFrames = Math.max(10, frames / 5);
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        threads = bean instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+            ? (com.sun.management.ThreadMXBean) bean : null;
+        if (threads != null) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    // One measured scene at one size
+    static class Result {
+        final String scene;
+        final int width;
+        final int height;
+        final int letters;
+        final LatencyHistogram frameTime;
+        final long allocatedBytes; // -1 when the JVM cannot tell
+        final double seconds;
+
+        Result(String scene, int width, int height, int letters, LatencyHistogram frameTime, long allocatedBytes,
+               double seconds) {
+            this.scene = scene;
+            this.width = width;
+            this.height = height;
+            this.letters = letters;
+            this.frameTime = frameTime;
+            this.allocatedBytes = allocatedBytes;
+            this.seconds = seconds;
+        }
+
+        @Override
+        public String toString() {
+            long count = frameTime.getCount();
+            String allocation = allocatedBytes < 0 ? "allocation n/a" : String.format("%7.1f KB/frame %7.1f MB/s",
+                allocatedBytes / 1024.0 / count, allocatedBytes / 1e6 / seconds);
+            return String.format("%-10s %4dx%-4d %5s  p50 %6.2f  p90 %6.2f  p99 %6.2f  max %6.2f ms  %s",
+                scene, width, height, letters < 0 ? "" : String.valueOf(letters),
+                frameTime.getPercentileMicros(50) / 1000.0, frameTime.getPercentileMicros(90) / 1000.0,
+                frameTime.getPercentileMicros(99) / 1000.0, frameTime.getMaxMicros() / 1000.0, allocation);
+        }
+    }
+
+    // Paint the scene over and over; background, when there is one, is animated between frames
+    Result measure(String scene, JComponent root, WordscapesBackground background, int width, int height, int letters) {
+        root.setSize(width, height);
+        layout(root);
+        if (background != null) {
+            background.animate(2 * height); // Until the letters are spread over the screen
+        }
+        BufferedImage image = createImage(width, height);
+        LatencyHistogram frameTime = new LatencyHistogram("render." + scene);
+        RepaintManager repaintManager = RepaintManager.currentManager(root);
+        boolean doubleBuffered = repaintManager.isDoubleBufferingEnabled();
+        repaintManager.setDoubleBufferingEnabled(false); // Paint straight into the image
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = 0;
+        long start = 0;
+        try {
+            for (int frame = -warmupFrames; frame < frames; frame++) {
+                if (frame == 0) {
+                    allocatedBefore = threads != null ? threads.getThreadAllocatedBytes(threadId) : 0;
+                    start = System.nanoTime();
+                }
+                if (background != null) {
+                    background.animate(1);
+                }
+                long frameStart = System.nanoTime();
+                Graphics2D g2d = image.createGraphics();
+                root.paint(g2d);
+                g2d.dispose();
+                if (frame >= 0) {
+                    frameTime.recordSince(frameStart);
+                }
+            }
+        } finally {
+            repaintManager.setDoubleBufferingEnabled(doubleBuffered);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = threads != null ? threads.getThreadAllocatedBytes(threadId) - allocatedBefore : -1;
+        return new Result(scene, width, height, letters, frameTime, allocated, seconds);
+    }
+
+    // What a screen-sized window would be drawn into
+    private static BufferedImage createImage(int width, int height) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(width, height);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    // Lay the whole tree out, as showing a window would
+    private static void layout(Container container) {
+        container.doLayout();
+        for (Component child : container.getComponents()) {
+            if (child instanceof Container) {
+                layout((Container) child);
+            }
+        }
+    }
+
+    // The answer boxes of a level in Game's column: two filled, one with a hint showing
+    static JPanel wordBoxes() {
+        JPanel panel = new JPanel(new GridLayout(0, 1, 10, 10));
+        panel.setOpaque(false);
+        for (int i = 0; i < LEVEL_WORDS.length; i++) {
+            WordBox box = new WordBox(LEVEL_WORDS[i]);
+            if (i < 2) {
+                box.fillWord(LEVEL_WORDS[i]);
+            } else if (i == 2) {
+                box.revealLetter(0, LEVEL_WORDS[i].charAt(0), true);
+            }
+            panel.add(box);
+        }
+        return panel;
+    }
+
+    // The game screen at the given size: Game's own GameBoard, showing a headless session of
+    // level BOARD_LEVEL part played, with two answers found, a hint given and a word being spelled
+    static JComponent board(WordscapesBackground background, int width, int height) {
+        GameLevel builtIn = new GameLevel("", new HashSet<>());
+        builtIn.initializeLevels();
+        List<GameLevel> levels = builtIn.getLevels();
+        int levelIndex = Math.min(BOARD_LEVEL, levels.size() - 1);
+        GameSession session = new GameSession(levels, 1, false, false, null);
+        session.loadLevel(levelIndex, true);
+
+        DefaultListModel<GameBoard.WordAttempt> history = new DefaultListModel<>();
+        List<String> answers = new ArrayList<>(levels.get(levelIndex).getValidWords());
+        for (int i = 0; i < 2 && i < answers.size(); i++) {
+            GameSession.Check check = null;
+            for (char c : answers.get(i).toCharArray()) {
+                check = session.tapLetter(c);
+            }
+            if (check != null) {
+                history.addElement(new GameBoard.WordAttempt(check.word, check.outcome == GameSession.Outcome.VALID));
+            }
+        }
+        for (int second = 0; second < session.getRules().roundSeconds; second++) {
+            session.tick();
+        }
+        List<Character> letters = session.getLetterOrder();
+        for (int i = 0; i < 2 && i < letters.size(); i++) {
+            session.tapLetter(letters.get(i));
+        }
+
+        GameBoard board = new GameBoard(history, null);
+        List<JButton> buttons = new ArrayList<>();
+        for (char c : letters) {
+            buttons.add(GameBoard.createLetterButton(String.valueOf(c)));
+        }
+        board.showLevel(session.getWordBoxes(), buttons);
+        board.showStats(session, null);
+        board.currentWordInput.setText(session.getCurrentWord());
+        board.install(background);
+        background.setSize(width, height);
+        layout(background);
+        board.circlePanel.layoutLetters(buttons); // Again now the circle has its size, as Game does on resize
+        return background;
+    }
+
+    // Run the scenes at every resolution, printing each result as it comes
+    List<Result> run(List<String> scenes, int[] letterCounts) {
+        List<Result> results = new ArrayList<>();
+        for (int[] size : RESOLUTIONS) {
+            int width = size[0];
+            int height = size[1];
+            if (scenes.contains("background")) {
+                for (int letters : letterCounts) {
+                    WordscapesBackground background = new WordscapesBackground(BACKGROUND_IMAGE, letters);
+                    print(results, measure("background", background, background, width, height, letters));
+                }
+            }
+            if (scenes.contains("wordboxes")) {
+                JPanel boxes = wordBoxes();
+                print(results, measure("wordboxes", boxes, null, 500, Math.min(height, 6 * 60), -1));
+            }
+            if (scenes.contains("board")) {
+                for (int letters : letterCounts) {
+                    WordscapesBackground background = new WordscapesBackground(BACKGROUND_IMAGE, letters);
+                    JComponent board = board(background, width, height);
+                    print(results, measure("board", board, background, width, height, letters));
+                }
+            }
+        }
+        return results;
+    }
+
+    private static void print(List<Result> results, Result result) {
+        System.out.println(result);
+        results.add(result);
+    }
+
+    // Have the background image scaled for every size before the frames are timed
+    private static void prepareImages() throws InterruptedException {
+        for (int[] size : RESOLUTIONS) {
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (ImageService.getInstance().getScaled(BACKGROUND_IMAGE, size[0], size[1], null) == null
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, InvocationTargetException {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        String[] counts = (args.length > 1 ? args[1] : "0,100,1000").split(",");
+        int[] letterCounts = new int[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            letterCounts[i] = Integer.parseInt(counts[i].trim());
+        }
+        List<String> scenes = List.of((args.length > 2 ? args[2] : "background,wordboxes,board").split(","));
+
+        prepareImages();
+        RenderBenchmark benchmark = new RenderBenchmark(frames);
+        System.out.printf("%d frames per scene after %d warm-up, %s%n", frames, benchmark.warmupFrames,
+            GraphicsEnvironment.isHeadless() ? "headless" : "with a display");
+        SwingUtilities.invokeAndWait(() -> benchmark.run(scenes, letterCounts));
+    }
+}
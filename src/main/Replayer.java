@@ -0,0 +1,143 @@
+package main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays a recorded InputJournal back through a headless GameSession. The journal
+ * holds the seed, the levels and every input, so the replay makes the same moves with
+ * the same results; the outcome and score recorded after each checked word are
+ * compared as it goes, and the first difference is reported with its position.
+ *
+ * By default inputs are applied as fast as they can be, which makes a recorded session
+ * a repeatable workload; a speed of 1 keeps the recorded timing, 10 is ten times
+ * faster. The dictionary is loaded from the usual place when the recording switched to
+ * one, so replay with the dictionary the session was played with.
+ *
+ *     java main.Replayer save/journal/session-....wjnl [runs] [speed]
+ */
+public class Replayer {
+    private final InputJournal.Recording recording;
+    private Dictionary dictionary; // Loaded on the first replay that needs it
+
+    // Totals of the last run
+    private int events;
+    private int checks;
+    private int mismatches;
+    private GameSession session;
+
+    public Replayer(InputJournal.Recording recording) {
+        this.recording = recording;
+    }
+
+    // Apply every input once; speed 0 does not wait between inputs
+    public void run(double speed) throws IOException {
+        session = new GameSession(recording.levels, new HashMap<>(), PlainWordSlot::new, GameRules.DEFAULT, recording.seed,
+            recording.bonusWordsEnabled, false, null);
+        events = 0;
+        checks = 0;
+        mismatches = 0;
+        ByteBuffer records = recording.records.duplicate();
+        long start = System.nanoTime();
+        GameSession.Check lastCheck = null;
+
+        while (records.remaining() >= InputJournal.RECORD_BYTES) {
+            long nanos = records.getLong();
+            byte type = records.get();
+            int a = records.get();
+            char b = (char) records.getShort();
+            int c = records.getInt();
+            if (type == 0) {
+                break; // The unused end of a journal that was not closed
+            }
+            if (speed > 0) {
+                long wait = start + (long) (nanos / speed) - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            events++;
+
+            switch (type) {
+                case InputJournal.LEVEL:
+                    session.loadLevel(c, a == 1);
+                    break;
+                case InputJournal.TAP:
+                    lastCheck = session.tapLetter(b);
+                    break;
+                case InputJournal.SWIPE_START:
+                    session.startSwipe();
+                    break;
+                case InputJournal.SWIPE_LETTER:
+                    session.swipeLetter(b);
+                    break;
+                case InputJournal.SWIPE_END:
+                    lastCheck = session.endSwipe();
+                    break;
+                case InputJournal.TICK:
+                    session.tick();
+                    break;
+                case InputJournal.DICTIONARY:
+                    session.useDictionary(c == 0 ? new Dictionary(List.of()) : dictionary(c));
+                    break;
+                case InputJournal.RESUME:
+                    byte[] snapshot = new byte[c];
+                    records.get(snapshot);
+                    session.restore(GameSnapshot.decode(snapshot));
+                    break;
+                case InputJournal.CHECKED:
+                    checks++;
+                    if (lastCheck == null || lastCheck.outcome.ordinal() != a || session.getScore() != c) {
+                        if (mismatches++ == 0) {
+                            System.out.printf("Replay differs at input %d (%.3f s): recorded %s with score %d, replayed %s with score %d%n",
+                                events, nanos / 1e9, GameSession.Outcome.values()[a], c,
+                                lastCheck == null ? "nothing" : lastCheck.outcome + " of " + lastCheck.word, session.getScore());
+                        }
+                    }
+                    lastCheck = null;
+                    break;
+                default:
+                    throw new IOException("unknown journal record " + type + " at input " + events);
+            }
+        }
+    }
+
+    private Dictionary dictionary(int recordedSize) {
+        if (dictionary == null) {
+            dictionary = Dictionary.loadShared().join();
+            if (dictionary.size() != recordedSize) {
+                System.out.println("Warning: the session was played with a dictionary of " + recordedSize
+                    + " words, this one has " + dictionary.size());
+            }
+        }
+        return dictionary;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("usage: Replayer <journal.wjnl> [runs] [speed]");
+            return;
+        }
+        Path path = Paths.get(args[0]);
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        double speed = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+
+        InputJournal.Recording recording = InputJournal.read(path);
+        Replayer replayer = new Replayer(recording);
+        for (int run = 1; run <= runs; run++) {
+            long start = System.nanoTime();
+            replayer.run(speed);
+            long elapsed = System.nanoTime() - start;
+            GameSession session = replayer.session;
+            System.out.printf("run %d: %d inputs in %.1f ms (%.0f/s), level %d, score %d, %d checks, %d differences%n",
+                run, replayer.events, elapsed / 1e6, replayer.events / (elapsed / 1e9),
+                session.getCurrentLevel() + 1, session.getScore(), replayer.checks, replayer.mismatches);
+        }
+        Metrics.dump(System.out);
+    }
+}
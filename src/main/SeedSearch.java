@@ -0,0 +1,251 @@
+package main;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Finds letter sets that make good levels: multisets of a given size whose sub-anagrams
+ * in a dictionary fall inside a target word count and length distribution.
+ *
+ * Every dictionary word is indexed by its sorted letters in a trie, so a multiset maps
+ * to the words spelled by exactly those letters. The sub-anagrams of a candidate are
+ * found by walking that trie while drawing letters from the candidate; a branch the
+ * dictionary does not continue is never expanded. Candidates are the distinct letter
+ * sets of the dictionary words of the requested size (so the longest answer always
+ * uses every letter), evaluated on all cores.
+ *
+ *     java main.SeedSearch words.txt 7 [minWords maxWords [limit]]
+ *
+ * prints the best candidates in level-pack format.
+ */
+public class SeedSearch {
+    private static final int ROOT = 0;
+
+    // What a good level looks like
+    public static class Target {
+        int minWords = 6;
+        int maxWords = 25;
+        int minWordLength = LevelLinter.MIN_WORD_LENGTH;
+        double maxShortShare = 0.6; // Share of the words that may have the minimum length
+
+        public Target words(int min, int max) {
+            this.minWords = min;
+            this.maxWords = max;
+            return this;
+        }
+
+        public Target minWordLength(int length) {
+            this.minWordLength = length;
+            return this;
+        }
+
+        public Target maxShortShare(double share) {
+            this.maxShortShare = share;
+            return this;
+        }
+    }
+
+    public static class Candidate {
+        private final String letters;
+        private final int wordCount;
+        private final int[] countsByLength;
+
+        Candidate(String letters, int wordCount, int[] countsByLength) {
+            this.letters = letters;
+            this.wordCount = wordCount;
+            this.countsByLength = countsByLength;
+        }
+
+        public String getLetters() {
+            return letters;
+        }
+
+        public int getWordCount() {
+            return wordCount;
+        }
+
+        // Number of sub-words of each length, indexed by length
+        public int[] getCountsByLength() {
+            return countsByLength.clone();
+        }
+    }
+
+    // Signature trie in flat arrays: children in first-child / next-sibling lists
+    private char[] label = new char[1024];
+    private int[] firstChild = new int[1024];
+    private int[] nextSibling = new int[1024];
+    private String[][] words = new String[1024][]; // Words whose sorted letters end at a node
+    private int nodeCount = 1;
+
+    private final List<List<String>> seedsBySize = new ArrayList<>(); // One word per distinct letter set
+
+    public SeedSearch(Dictionary dictionary) {
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(nextSibling, -1);
+        for (int length = 0; length <= dictionary.maxLength(); length++) {
+            Map<String, String> seeds = new LinkedHashMap<>();
+            for (String word : dictionary.wordsOfLength(length)) {
+                String signature = signature(word);
+                add(signature, word);
+                seeds.putIfAbsent(signature, word);
+            }
+            seedsBySize.add(new ArrayList<>(seeds.values()));
+        }
+    }
+
+    private static String signature(String word) {
+        char[] letters = word.toCharArray();
+        Arrays.sort(letters);
+        return new String(letters);
+    }
+
+    private void add(String signature, String word) {
+        int node = ROOT;
+        for (int i = 0; i < signature.length(); i++) {
+            node = childOrCreate(node, signature.charAt(i));
+        }
+        String[] existing = words[node];
+        if (existing == null) {
+            words[node] = new String[] {word};
+        } else {
+            String[] grown = Arrays.copyOf(existing, existing.length + 1);
+            grown[existing.length] = word;
+            words[node] = grown;
+        }
+    }
+
+    private int childOrCreate(int node, char c) {
+        int previous = -1;
+        for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+            if (label[child] == c) {
+                return child;
+            }
+            previous = child;
+        }
+        if (nodeCount == label.length) {
+            int capacity = label.length * 2;
+            label = Arrays.copyOf(label, capacity);
+            words = Arrays.copyOf(words, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            Arrays.fill(firstChild, nodeCount, capacity, -1);
+            Arrays.fill(nextSibling, nodeCount, capacity, -1);
+        }
+        int created = nodeCount++;
+        label[created] = c;
+        if (previous == -1) {
+            firstChild[node] = created;
+        } else {
+            nextSibling[previous] = created;
+        }
+        return created;
+    }
+
+    // The best letter sets of the given size, most words first
+    public List<Candidate> search(int size, Target target, int limit) {
+        if (size >= seedsBySize.size()) {
+            return new ArrayList<>();
+        }
+        return seedsBySize.get(size).parallelStream()
+            .map(seed -> evaluate(seed, target))
+            .filter(candidate -> candidate != null)
+            .sorted(Comparator.comparingInt(Candidate::getWordCount).reversed().thenComparing(Candidate::getLetters))
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    // Count the sub-words of the seed; null when it misses the target
+    Candidate evaluate(String seed, Target target) {
+        int[] remaining = LetterCounts.of(seed);
+        int[] countsByLength = new int[seed.length() + 1];
+        int total = count(ROOT, 0, remaining, countsByLength, target);
+        if (total < target.minWords || total > target.maxWords) {
+            return null;
+        }
+        if (target.minWordLength < countsByLength.length
+                && countsByLength[target.minWordLength] > total * target.maxShortShare) {
+            return null;
+        }
+        return new Candidate(seed, total, countsByLength);
+    }
+
+    // Depth-first over the signature trie; stops early once the word count is over the maximum
+    private int count(int node, int depth, int[] remaining, int[] countsByLength, Target target) {
+        int total = 0;
+        for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+            int letter = label[child] - 'A';
+            if (remaining[letter] == 0) {
+                continue;
+            }
+            remaining[letter]--;
+            if (words[child] != null && depth + 1 >= target.minWordLength) {
+                countsByLength[depth + 1] += words[child].length;
+                total += words[child].length;
+            }
+            if (total <= target.maxWords) {
+                total += count(child, depth + 1, remaining, countsByLength, target);
+            }
+            remaining[letter]++;
+            if (total > target.maxWords) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    // Every sub-word of the letter set, shortest first
+    public List<String> words(String letters, Target target) {
+        List<String> found = new ArrayList<>();
+        collect(ROOT, 0, LetterCounts.of(letters), found, target);
+        found.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+        return found;
+    }
+
+    private void collect(int node, int depth, int[] remaining, List<String> found, Target target) {
+        for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+            int letter = label[child] - 'A';
+            if (remaining[letter] == 0) {
+                continue;
+            }
+            remaining[letter]--;
+            if (words[child] != null && depth + 1 >= target.minWordLength) {
+                found.addAll(Arrays.asList(words[child]));
+            }
+            collect(child, depth + 1, remaining, found, target);
+            remaining[letter]++;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage: SeedSearch <dictionary> <size> [minWords maxWords [limit]]");
+            return;
+        }
+        Dictionary dictionary = Dictionary.load(Paths.get(args[0]));
+        int size = Integer.parseInt(args[1]);
+        Target target = new Target();
+        if (args.length >= 4) {
+            target.words(Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+        }
+        int limit = args.length >= 5 ? Integer.parseInt(args[4]) : 200;
+
+        long start = System.nanoTime();
+        SeedSearch search = new SeedSearch(dictionary);
+        long indexed = System.nanoTime();
+        List<Candidate> candidates = search.search(size, target, limit);
+        long searched = System.nanoTime();
+
+        for (Candidate candidate : candidates) {
+            System.out.println(candidate.getLetters() + "\t" + String.join(",", search.words(candidate.getLetters(), target)));
+        }
+        System.err.printf("%d words indexed in %d ms, %d candidates of size %d in %d ms%n",
+            dictionary.size(), (indexed - start) / 1_000_000, candidates.size(), size, (searched - indexed) / 1_000_000);
+    }
+}
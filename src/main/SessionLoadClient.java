@@ -0,0 +1,178 @@
+package main;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Load generator for the SessionServer: opens many client connections from one thread
+ * with a selector and has each of them tap a random letter of its level every so
+ * often. Every second it prints the open sessions, the letters sent and frames
+ * received per second, and the time from a tap to the server's WORD reply. Given a
+ * race size, every client asks to race and the race standings received are counted too.
+ *
+ *     java main.SessionLoadClient [host] [port] [clients] [seconds] [taps per client per second] [race size]
+ */
+public class SessionLoadClient {
+    private static final int CONNECTS_PER_TICK = 500; // Stay inside the server's accept backlog
+
+    // One simulated player
+    private static class Client {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(8192);
+        final ByteBuffer tap = ByteBuffer.allocate(3);
+        String letters = "";
+        long nextTap;
+        long sentAt; // When the unanswered tap went out, 0 if none
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : SessionServer.DEFAULT_PORT;
+        int clientCount = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        double tapsPerSecond = args.length > 4 ? Double.parseDouble(args[4]) : 1;
+        int raceSize = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+        long tapInterval = (long) (1e9 / tapsPerSecond);
+
+        InetSocketAddress address = new InetSocketAddress(host, port);
+        LatencyHistogram replyTime = Metrics.histogram("client.tapToWord");
+        SplittableRandom random = new SplittableRandom(1);
+        Selector selector = Selector.open();
+        List<Client> clients = new ArrayList<>(clientCount);
+        long frames = 0;
+        long[] standings = new long[1];
+        long taps = 0;
+        int failed = 0;
+
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long nextReport = start + 1_000_000_000L;
+        long lastFrames = 0;
+        long lastTaps = 0;
+        long lastStandings = 0;
+
+        while (System.nanoTime() < end) {
+            // Open connections a batch at a time
+            for (int i = 0; i < CONNECTS_PER_TICK && clients.size() + failed < clientCount; i++) {
+                try {
+                    SocketChannel channel = SocketChannel.open(address);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    if (raceSize > 0) {
+                        channel.write(ByteBuffer.wrap(new byte[] {SessionServer.IN_RACE, (byte) raceSize}));
+                    }
+                    channel.configureBlocking(false);
+                    Client client = new Client(channel);
+                    client.nextTap = System.nanoTime() + random.nextLong(tapInterval);
+                    channel.register(selector, SelectionKey.OP_READ, client);
+                    clients.add(client);
+                } catch (IOException e) {
+                    if (failed++ == 0) {
+                        System.out.println("Connection failed: " + e.getMessage());
+                    }
+                }
+            }
+
+            selector.select(5);
+            for (SelectionKey key : selector.selectedKeys()) {
+                Client client = (Client) key.attachment();
+                try {
+                    if (client.channel.read(client.in) < 0) {
+                        key.cancel();
+                        continue;
+                    }
+                } catch (IOException e) {
+                    key.cancel();
+                    continue;
+                }
+                frames += readFrames(client, replyTime, standings);
+            }
+            selector.selectedKeys().clear();
+
+            long now = System.nanoTime();
+            for (Client client : clients) {
+                if (now < client.nextTap || client.letters.isEmpty() || !client.channel.isOpen()) {
+                    continue;
+                }
+                client.tap.clear();
+                client.tap.put(SessionServer.IN_TAP).putChar(client.letters.charAt(random.nextInt(client.letters.length())));
+                client.tap.flip();
+                try {
+                    client.channel.write(client.tap);
+                    if (client.sentAt == 0) {
+                        client.sentAt = now;
+                    }
+                    taps++;
+                } catch (IOException e) {
+                    client.channel.close();
+                }
+                client.nextTap = now + tapInterval;
+            }
+
+            if (now >= nextReport) {
+                int open = 0;
+                for (Client client : clients) {
+                    if (client.channel.isOpen()) {
+                        open++;
+                    }
+                }
+                System.out.printf("%3ds: %d sessions, %d taps/s, %d frames/s, %d standings/s, tap to reply %s%n",
+                    (now - start) / 1_000_000_000L, open, taps - lastTaps, frames - lastFrames,
+                    standings[0] - lastStandings, replyTime);
+                lastStandings = standings[0];
+                lastTaps = taps;
+                lastFrames = frames;
+                nextReport += 1_000_000_000L;
+            }
+        }
+
+        for (Client client : clients) {
+            try {
+                client.channel.write(ByteBuffer.wrap(new byte[] {SessionServer.IN_QUIT}));
+                client.channel.close();
+            } catch (IOException e) {
+                // Already gone
+            }
+        }
+        System.out.printf("%d taps, %d frames, %d connections failed%n", taps, frames, failed);
+    }
+
+    // Take the complete frames out of the buffer; returns how many there were
+    private static int readFrames(Client client, LatencyHistogram replyTime, long[] standings) {
+        ByteBuffer in = client.in;
+        in.flip();
+        int count = 0;
+        while (in.remaining() >= 2 && in.remaining() >= 2 + in.getShort(in.position())) {
+            int length = in.getShort();
+            int next = in.position() + length;
+            byte type = in.get();
+            if (type == SessionServer.OUT_LEVEL) {
+                in.getInt();
+                byte[] letters = new byte[in.getShort()];
+                in.get(letters);
+                client.letters = new String(letters, StandardCharsets.UTF_8);
+            } else if (type == SessionServer.OUT_WORD && client.sentAt != 0) {
+                replyTime.recordSince(client.sentAt);
+                client.sentAt = 0;
+            } else if (type == SessionServer.OUT_STANDINGS) {
+                standings[0]++;
+            }
+            in.position(next);
+            count++;
+        }
+        in.compact();
+        return count;
+    }
+}
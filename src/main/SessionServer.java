@@ -0,0 +1,558 @@
+package main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Plays the game for remote clients: every connection gets its own GameSession, run
+ * server-side, with the client only sending letters and showing what comes back.
+ *
+ * Each connection is served by one thread doing plain blocking reads, which is cheap
+ * when it is a virtual thread (Java 21 and later; found by reflection so the game still
+ * builds for 17, where it falls back to platform threads with small stacks). One
+ * small scheduler counts every session's seconds; the connection's sender runs them
+ * and writes the time, so a client that stops reading cannot stop the clock for
+ * the others. The levels and their
+ * prepared filters, near-miss indexes and hint plans are built once and shared by all
+ * sessions; a session only holds its own progress.
+ *
+ * The protocol is binary. The client sends TAP (a char) or SWIPE (a count and the
+ * chars) or QUIT. The server sends only what changed, as frames of a short length and
+ * a type: LEVEL when a level starts, WORD after every letter, CHECKED for a checked
+ * word, FILL and REVEAL for letters appearing in the boxes, TIME every second and
+ * GAME_OVER. Boxes are named by their word length.
+ *
+ * RACE puts the client in the lobby until enough players asked for a race of the same
+ * size; they then all play one level in a RaceRoom and get STANDINGS, the others'
+ * found-word counts, at most once per broadcast tick. The broadcaster only merges the
+ * counts into the connection's pending standings; a sender task of the connection's
+ * own sends them, so a client that stops reading holds up nobody else. Finishing the
+ * level or leaving ends the race for that player, who goes on to the next level as usual.
+ *
+ *     java main.SessionServer [port] [pack.tsv]
+ */
+public class SessionServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7373;
+
+    // Client to server
+    static final byte IN_TAP = 1;          // char letter
+    static final byte IN_SWIPE = 2;        // byte count, chars
+    static final byte IN_QUIT = 3;
+    static final byte IN_RACE = 4;         // byte players: join the next race of that many
+
+    // Server to client, each in a frame: short payload length, byte type, payload
+    static final byte OUT_LEVEL = 1;       // int level, UTF letters in circle order, byte boxes, byte length of each,
+                                           // int score, short time, byte attempts
+    static final byte OUT_WORD = 2;        // UTF word being spelled
+    static final byte OUT_CHECKED = 3;     // byte outcome, byte flags (1 filled, 2 level complete), int score, UTF word
+    static final byte OUT_FILL = 4;        // UTF word filled into the box of its length
+    static final byte OUT_REVEAL = 5;      // byte box length, byte position, char letter
+    static final byte OUT_TIME = 6;        // short time, byte attempts
+    static final byte OUT_GAME_OVER = 7;   // int score
+    static final byte OUT_RACE = 8;        // byte players, byte you, short words; the race's LEVEL follows
+    static final byte OUT_STANDINGS = 9;   // byte count, then per player byte player, short words found
+
+    private static final LatencyHistogram INPUT_TIME = Metrics.histogram("server.input");
+
+    private final ServerSocket serverSocket;
+    private final List<GameLevel> levels;
+    private final Map<Integer, GameSession.Prepared> preparedLevels = new ConcurrentHashMap<>();
+    private final boolean bonusWordsEnabled;
+    private final ThreadFactory sessionThreads;
+    private final boolean virtualThreads;
+    private final ScheduledExecutorService clock;
+    private final ExecutorService senders; // Writes timer updates and race standings, which may block on a slow client
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final SplittableRandom seeds = new SplittableRandom();
+    private final AtomicInteger opened = new AtomicInteger();
+    private final Map<Integer, List<Connection>> lobby = new HashMap<>();
+    private volatile boolean closed;
+
+    public SessionServer(int port, List<GameLevel> levels, boolean bonusWordsEnabled) throws IOException {
+        this.levels = Collections.unmodifiableList(levels);
+        this.bonusWordsEnabled = bonusWordsEnabled;
+        ThreadFactory virtual = virtualThreadFactory();
+        virtualThreads = virtual != null;
+        sessionThreads = virtual != null ? virtual : r -> {
+            Thread t = new Thread(null, r, "session-" + opened.get(), 256 * 1024);
+            t.setDaemon(true);
+            return t;
+        };
+        clock = Executors.newScheduledThreadPool(2, r -> {
+            Thread t = new Thread(r, "session-clock");
+            t.setDaemon(true);
+            return t;
+        });
+        senders = Executors.newCachedThreadPool(sessionThreads);
+        serverSocket = new ServerSocket(port, 4096);
+    }
+
+    // Thread.ofVirtual().factory() where the JVM has it
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getSessionCount() {
+        return connections.size();
+    }
+
+    // Accept connections until closed; each gets a thread of its own
+    public void serve() throws IOException {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (closed) {
+                    return;
+                }
+                throw e;
+            }
+            socket.setTcpNoDelay(true);
+            Connection connection = new Connection(socket);
+            connections.add(connection);
+            opened.incrementAndGet();
+            sessionThreads.newThread(connection).start();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        clock.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    // Wait for a race of the given size; the last to arrive starts it for everyone
+    private void joinRace(Connection connection, int size) {
+        List<Connection> players;
+        synchronized (lobby) {
+            List<Connection> waiting = lobby.computeIfAbsent(size, s -> new ArrayList<>());
+            if (waiting.contains(connection)) {
+                return;
+            }
+            waiting.add(connection);
+            if (waiting.size() < size) {
+                return;
+            }
+            players = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        int levelIndex = ThreadLocalRandom.current().nextInt(levels.size());
+        RaceRoom room = new RaceRoom(levelIndex, levels.get(levelIndex), players, RaceBroadcaster.shared());
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).startRace(room, i);
+        }
+    }
+
+    private void leaveLobby(Connection connection) {
+        synchronized (lobby) {
+            for (List<Connection> waiting : lobby.values()) {
+                waiting.remove(connection);
+            }
+        }
+    }
+
+    private static final int NOT_PENDING = -1;
+
+    // One client and its game. Input and the sender both lock, as they run on different threads; the clock and the
+    // race broadcaster only leave work for the sender, so a client that stops reading holds up no one else
+    private class Connection implements Runnable, RaceRoom.Member {
+        private final Socket socket;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final GameSession session;
+        private DataOutputStream out;
+        private final ByteArrayOutputStream frame = new ByteArrayOutputStream(64);
+        private final DataOutputStream payload = new DataOutputStream(frame);
+        private String letters = "";
+        private ScheduledFuture<?> timer;
+        private RaceRoom race;
+        private int racePlayer;
+        private volatile int[] pendingFound = new int[0]; // Counts not yet sent, NOT_PENDING if none; locked on itself
+        private final AtomicInteger pendingTicks = new AtomicInteger(); // Seconds passed that the sender has not applied
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        Connection(Socket socket) {
+            this.socket = socket;
+            // Made on the accepting thread, the only one to use the seed generator
+            session = new GameSession(levels, preparedLevels, DeltaSlot::new, GameRules.DEFAULT,
+                seeds.nextLong(), bonusWordsEnabled, true, null);
+        }
+
+        // A box that tells the client about every letter that appears in it
+        private class DeltaSlot extends PlainWordSlot {
+            private final int length;
+
+            DeltaSlot(String word) {
+                super(word);
+                length = word.length();
+            }
+
+            @Override
+            public void fillWord(String word) {
+                super.fillWord(word);
+                try {
+                    payload.writeUTF(word);
+                    sendFrame(OUT_FILL);
+                } catch (IOException e) {
+                    close();
+                }
+            }
+
+            @Override
+            public void revealLetter(int position, char letter) {
+                super.revealLetter(position, letter);
+                try {
+                    payload.writeByte(length);
+                    payload.writeByte(position);
+                    payload.writeChar(letter);
+                    sendFrame(OUT_REVEAL);
+                } catch (IOException e) {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                lock.lock();
+                try {
+                    startLevel(0, true);
+                    out.flush();
+                } finally {
+                    lock.unlock();
+                }
+                timer = clock.scheduleAtFixedRate(this::tick, 1, 1, TimeUnit.SECONDS);
+
+                while (true) {
+                    int op = in.read();
+                    if (op < 0 || op == IN_QUIT) {
+                        break;
+                    }
+                    if (op == IN_TAP) {
+                        char letter = in.readChar();
+                        apply(letter, null);
+                    } else if (op == IN_SWIPE) {
+                        char[] swipe = new char[in.readUnsignedByte()];
+                        for (int i = 0; i < swipe.length; i++) {
+                            swipe[i] = in.readChar();
+                        }
+                        apply((char) 0, swipe);
+                    } else if (op == IN_RACE) {
+                        joinRace(this, Math.max(2, in.readUnsignedByte()));
+                    } else {
+                        throw new IOException("unknown input " + op);
+                    }
+                }
+            } catch (EOFException | SocketException e) {
+                // Client went away
+            } catch (IOException e) {
+                System.out.println("Session error: " + e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        // A tapped letter, or a whole swipe; letters that are not on the level are ignored
+        private void apply(char letter, char[] swipe) throws IOException {
+            long start = System.nanoTime();
+            lock.lock();
+            try {
+                GameSession.Check check;
+                if (swipe == null) {
+                    if (letters.indexOf(letter) < 0) {
+                        return;
+                    }
+                    check = session.tapLetter(letter);
+                } else {
+                    session.startSwipe();
+                    for (char c : swipe) {
+                        if (letters.indexOf(c) >= 0) {
+                            session.swipeLetter(c);
+                        }
+                    }
+                    check = session.endSwipe();
+                }
+                if (check != null) {
+                    payload.writeByte(check.outcome.ordinal());
+                    payload.writeByte((check.filled ? 1 : 0) | (check.levelComplete ? 2 : 0));
+                    payload.writeInt(session.getScore());
+                    payload.writeUTF(check.word);
+                    sendFrame(OUT_CHECKED);
+                }
+                payload.writeUTF(session.getCurrentWord());
+                sendFrame(OUT_WORD);
+                if (race != null && check != null && check.filled) {
+                    race.found(racePlayer, session.getSolvedWords().size());
+                }
+                if (check != null && check.levelComplete) {
+                    leaveRace();
+                    int next = session.getCurrentLevel() + 1;
+                    startLevel(next < levels.size() ? next : 0, next >= levels.size());
+                }
+                out.flush();
+            } finally {
+                lock.unlock();
+                INPUT_TIME.recordSince(start);
+            }
+        }
+
+        // On the shared clock, which must never wait for this client: count the second and wake the sender
+        private void tick() {
+            pendingTicks.incrementAndGet();
+            wakeSender();
+        }
+
+        // Under the lock: run the seconds that passed since the last send, then send the time once
+        private void applyTicks() throws IOException {
+            boolean timeChanged = false;
+            for (int ticks = pendingTicks.getAndSet(0); ticks > 0; ticks--) {
+                GameSession.Tick tick = session.tick();
+                if (tick == GameSession.Tick.GAME_OVER) {
+                    payload.writeInt(session.getScore());
+                    sendFrame(OUT_GAME_OVER);
+                    startLevel(session.getCurrentLevel(), true);
+                    if (race != null) {
+                        race.found(racePlayer, 0);
+                    }
+                    timeChanged = false;
+                } else {
+                    timeChanged = true;
+                }
+            }
+            if (timeChanged) {
+                sendTime();
+            }
+        }
+
+        private void startLevel(int levelIndex, boolean newGame) throws IOException {
+            session.loadLevel(levelIndex, newGame);
+            StringBuilder circle = new StringBuilder();
+            for (char c : session.getLetterOrder()) {
+                circle.append(c);
+            }
+            letters = circle.toString();
+            Set<Integer> lengths = new TreeSet<>();
+            for (String word : levels.get(levelIndex).getValidWords()) {
+                lengths.add(word.length());
+            }
+
+            payload.writeInt(levelIndex);
+            payload.writeUTF(letters);
+            payload.writeByte(lengths.size());
+            for (int length : lengths) {
+                payload.writeByte(length);
+            }
+            payload.writeInt(session.getScore());
+            payload.writeShort(session.getTimeRemaining());
+            payload.writeByte(session.getAttempts());
+            sendFrame(OUT_LEVEL);
+        }
+
+        void startRace(RaceRoom room, int player) {
+            lock.lock();
+            try {
+                race = room;
+                racePlayer = player;
+                int[] pending = new int[room.getPlayerCount()];
+                Arrays.fill(pending, NOT_PENDING);
+                pendingFound = pending;
+                payload.writeByte(room.getPlayerCount());
+                payload.writeByte(player);
+                payload.writeShort(room.getWordCount());
+                sendFrame(OUT_RACE);
+                startLevel(room.getLevelIndex(), true);
+                out.flush();
+            } catch (IOException e) {
+                close();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // On the broadcast thread, which must never touch the socket: merge the counts into
+        // what is pending and make sure a sender will write them
+        @Override
+        public boolean deliver(RaceRoom.Standings standings) {
+            int[] pending = pendingFound;
+            synchronized (pending) {
+                for (int i = 0; i < standings.players.length; i++) {
+                    if (standings.players[i] < pending.length) {
+                        pending[standings.players[i]] = standings.found[i];
+                    }
+                }
+            }
+            wakeSender();
+            return true;
+        }
+
+        private void wakeSender() {
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::send);
+            }
+        }
+
+        // One sender per connection at a time; seconds and counts that arrive while it writes are sent by it too
+        private void send() {
+            do {
+                lock.lock();
+                try {
+                    applyTicks();
+                    int[] pending = pendingFound;
+                    int count = 0;
+                    synchronized (pending) {
+                        for (int player = 0; player < pending.length; player++) {
+                            if (pending[player] != NOT_PENDING) {
+                                payload.writeByte(player);
+                                payload.writeShort(pending[player]);
+                                pending[player] = NOT_PENDING;
+                                count++;
+                            }
+                        }
+                    }
+                    if (count > 0) {
+                        byte[] entries = frame.toByteArray();
+                        frame.reset();
+                        payload.writeByte(count);
+                        payload.write(entries);
+                        sendFrame(OUT_STANDINGS);
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    sending.set(false);
+                    close();
+                    return;
+                } finally {
+                    lock.unlock();
+                }
+                sending.set(false);
+            } while ((pendingTicks.get() > 0 || hasPendingStandings()) && sending.compareAndSet(false, true));
+        }
+
+        private boolean hasPendingStandings() {
+            int[] pending = pendingFound;
+            synchronized (pending) {
+                for (int found : pending) {
+                    if (found != NOT_PENDING) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private void leaveRace() {
+            if (race != null) {
+                race.leave(racePlayer);
+                race = null;
+            }
+        }
+
+        private void sendTime() throws IOException {
+            payload.writeShort(session.getTimeRemaining());
+            payload.writeByte(session.getAttempts());
+            sendFrame(OUT_TIME);
+        }
+
+        // Frame what has been written to the payload; sent on the next flush
+        private void sendFrame(byte type) throws IOException {
+            out.writeShort(frame.size() + 1);
+            out.writeByte(type);
+            frame.writeTo(out);
+            frame.reset();
+        }
+
+        void close() {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            connections.remove(this);
+            leaveLobby(this);
+            lock.lock();
+            try {
+                leaveRace();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        List<GameLevel> levels;
+        if (args.length > 1) {
+            levels = LevelPack.load(Paths.get(args[1]));
+        } else {
+            GameLevel builtIn = new GameLevel("", new HashSet<>());
+            builtIn.initializeLevels();
+            levels = builtIn.getLevels();
+        }
+        boolean bonusWords = Boolean.parseBoolean(System.getProperty("wordscapes.bonusWords", "true"));
+        if (bonusWords) {
+            Dictionary.loadShared();
+        }
+
+        SessionServer server = new SessionServer(port, levels, bonusWords);
+        System.out.printf("Serving %d levels on port %d with %s threads%n", levels.size(), server.getPort(),
+            server.isUsingVirtualThreads() ? "virtual" : "platform");
+        server.clock.scheduleAtFixedRate(() -> System.out.printf("%d sessions, %s%n",
+            server.getSessionCount(), INPUT_TIME), 5, 5, TimeUnit.SECONDS);
+        server.serve();
+    }
+}
@@ -0,0 +1,337 @@
+package main;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Window;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import javax.swing.AbstractButton;
+import javax.swing.JButton;
+import javax.swing.JLayeredPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Plays levels by itself, one tapped letter at a time, through the same input a
+ * player uses: GameSession.tapLetter when headless, and the letter buttons of a live
+ * Game otherwise, so every tap goes through addLetter, checkWord and the repaint.
+ *
+ * The bot sees what a player sees: the letters and the boxes. Its plan for a level is
+ * every sub-anagram of the letters (found with the SeedSearch trie over the dictionary
+ * and the answers of the levels played) whose length has an open box, longest first
+ * and then the commonest. A word cut short because a shorter answer inside it was
+ * accepted is tried again; a word left standing as the start of a longer answer is
+ * pushed on until the game rejects it. Each tap is chosen from the session's current
+ * word, so the same bot drives a headless session and a live one.
+ *
+ * Headless, a speed in letters per second also runs the one-second timer on a virtual
+ * clock, so slow bots get hints and can run out of time; speed 0 taps without a clock.
+ *
+ *     java main.SolverBot [letters per second] [runs] [pack.tsv]
+ *     java main.SolverBot --live [letters per second] [games] [pack.tsv]
+ *
+ * Live games save their snapshot, profile, scores, journal and analytics to a new
+ * temporary directory, not the kiosk's save/, unless the -Dwordscapes properties
+ * say otherwise.
+ */
+public class SolverBot {
+    private final SeedSearch anagrams;
+    private final SeedSearch.Target target = new SeedSearch.Target();
+    private final DifficultyModel.FrequencyLookup frequencies;
+
+    // The level being played, known by its boxes, which are made new for every level
+    private WordSlot firstBox;
+    private Collection<WordSlot> boxes;
+    private final Deque<String> plan = new ArrayDeque<>();
+    private String word;   // Being typed, null between words
+    private int typed;     // Letters of it tapped so far
+    private int filledBefore; // Boxes filled when it was started
+    private char pushLetter;
+    int taps;
+    int words;
+
+    // Words are taken from the dictionary and the answers of the given levels
+    public SolverBot(Dictionary dictionary, List<GameLevel> levels) {
+        List<String> source = new ArrayList<>();
+        for (int length = 0; length <= dictionary.maxLength(); length++) {
+            source.addAll(dictionary.wordsOfLength(length));
+        }
+        for (GameLevel level : levels) {
+            source.addAll(level.getValidWords());
+        }
+        anagrams = new SeedSearch(new Dictionary(source));
+        frequencies = WordFrequencies.shared();
+    }
+
+    // The next letter to tap in the session, or 0 when the plan has nothing left to try
+    char next(GameSession session) {
+        Collection<WordSlot> current = session.getWordBoxes();
+        WordSlot first = current.isEmpty() ? null : current.iterator().next();
+        if (first != firstBox) {
+            startLevel(session, current, first);
+        }
+
+        String shown = session.getCurrentWord();
+        if (word != null && (typed == 0 ? !shown.isEmpty() : !shown.equals(word.substring(0, typed)))) {
+            // A shorter answer inside the word was taken before it was finished; try it again,
+            // which ends as every retry needs another box to have been filled
+            if (typed < word.length() && shown.isEmpty() && filledBoxes() > filledBefore && isOpen(word)) {
+                plan.addFirst(word);
+            }
+            word = null;
+        }
+        if (word != null && typed == word.length()) {
+            word = null; // Typed out but still standing: the start of a longer answer
+        }
+        if (word == null && !shown.isEmpty()) {
+            taps++;
+            return pushLetter; // Lengthen what stands until the game rejects or takes it
+        }
+        if (word == null) {
+            word = nextWord();
+            typed = 0;
+            filledBefore = filledBoxes();
+            if (word == null) {
+                return 0;
+            }
+            words++;
+        }
+        taps++;
+        return word.charAt(typed++);
+    }
+
+    private void startLevel(GameSession session, Collection<WordSlot> current, WordSlot first) {
+        firstBox = first;
+        boxes = current;
+        plan.clear();
+        word = null;
+        StringBuilder letters = new StringBuilder();
+        for (char c : session.getLetterOrder()) {
+            letters.append(c);
+        }
+        pushLetter = letters.length() > 0 ? letters.charAt(0) : 'A';
+        List<String> candidates = anagrams.words(letters.toString(), target);
+        candidates.sort(Comparator.comparingInt(String::length).reversed()
+            .thenComparing(Comparator.comparingDouble((String w) -> frequency(w)).reversed())
+            .thenComparing(Comparator.naturalOrder()));
+        plan.addAll(candidates);
+    }
+
+    private double frequency(String word) {
+        double zipf = frequencies.zipf(word);
+        return Double.isNaN(zipf) ? 0 : zipf;
+    }
+
+    private String nextWord() {
+        while (!plan.isEmpty()) {
+            String candidate = plan.pollFirst();
+            if (isOpen(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    // True if a box of the word's length is showing and not yet filled
+    private boolean isOpen(String word) {
+        for (WordSlot box : boxes) {
+            if (box.getShownLetters().length == word.length() && !box.isFilled()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int filledBoxes() {
+        int filled = 0;
+        for (WordSlot box : boxes) {
+            if (box.isFilled()) {
+                filled++;
+            }
+        }
+        return filled;
+    }
+
+    // How a level went
+    static class LevelResult {
+        final int levelIndex;
+        final boolean completed;
+        final int taps;
+        final int words;
+        final int seconds;
+        final int hints;
+        final int score;
+
+        LevelResult(int levelIndex, boolean completed, int taps, int words, int seconds, int hints, int score) {
+            this.levelIndex = levelIndex;
+            this.completed = completed;
+            this.taps = taps;
+            this.words = words;
+            this.seconds = seconds;
+            this.hints = hints;
+            this.score = score;
+        }
+    }
+
+    // Play one level of a headless session from its start
+    LevelResult play(GameSession session, int levelIndex, double lettersPerSecond) {
+        session.loadLevel(levelIndex, true);
+        int startTaps = taps;
+        int startWords = words;
+        double clock = 0;
+        int seconds = 0;
+        while (true) {
+            char letter = next(session);
+            if (letter == 0) {
+                break;
+            }
+            GameSession.Check check = session.tapLetter(letter);
+            if (check != null && check.levelComplete) {
+                return new LevelResult(levelIndex, true, taps - startTaps, words - startWords, seconds,
+                    session.getHintsUsed(), session.getScore());
+            }
+            if (lettersPerSecond > 0) {
+                clock += 1 / lettersPerSecond;
+                for (; seconds < (int) clock; seconds++) {
+                    if (session.tick() == GameSession.Tick.GAME_OVER) {
+                        return new LevelResult(levelIndex, false, taps - startTaps, words - startWords, seconds + 1,
+                            session.getHintsUsed(), session.getScore());
+                    }
+                }
+            }
+        }
+        return new LevelResult(levelIndex, false, taps - startTaps, words - startWords, seconds,
+            session.getHintsUsed(), session.getScore());
+    }
+
+    // Drive a live Game with a Swing timer; stops after the given number of games
+    void playLive(Game game, double lettersPerSecond, int games) {
+        int delay = (int) Math.max(1, 1000 / lettersPerSecond);
+        int[] finished = new int[1];
+        long start = System.nanoTime();
+        int startTaps = taps;
+        Timer timer = new Timer(delay, null);
+        timer.addActionListener(e -> {
+            // The level-complete overlay and the game-over or game-complete dialogs
+            JLayeredPane layers = game.getLayeredPane();
+            for (Component overlay : layers.getComponentsInLayer(JLayeredPane.POPUP_LAYER)) {
+                if (overlay instanceof Container && click((Container) overlay, "Continue")) {
+                    return;
+                }
+            }
+            for (Window window : game.getOwnedWindows()) {
+                if (window.isVisible() && (click(window, "Play Again") || click(window, "Retry Level"))) {
+                    if (++finished[0] >= games) {
+                        timer.stop();
+                        double elapsed = (System.nanoTime() - start) / 1e9;
+                        System.out.printf("%d games, %d taps in %.1f s (%.0f taps/s)%n",
+                            finished[0], taps - startTaps, elapsed, (taps - startTaps) / elapsed);
+                        Metrics.dump(System.out);
+                    }
+                    return;
+                }
+            }
+
+            char letter = next(game.getSession());
+            if (letter == 0) {
+                timer.stop();
+                System.out.println("Solver bot cannot finish level " + (game.getSession().getCurrentLevel() + 1));
+                return;
+            }
+            for (JButton button : game.getLetterButtons()) {
+                if (button.getText().charAt(0) == letter) {
+                    button.doClick(0);
+                    return;
+                }
+            }
+        });
+        timer.start();
+    }
+
+    // Press the first visible button with the given text in the container
+    private static boolean click(Container container, String text) {
+        for (Component component : container.getComponents()) {
+            if (component instanceof AbstractButton && component.isShowing()
+                    && text.equals(((AbstractButton) component).getText())) {
+                ((AbstractButton) component).doClick(0);
+                return true;
+            }
+            if (component instanceof Container && click((Container) component, text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Every save of a live Game goes to a temporary directory; -Dwordscapes settings are kept
+    private static void useScratchSaves() throws IOException {
+        Path dir = Files.createTempDirectory("solverbot");
+        System.setProperty("wordscapes.snapshot", System.getProperty("wordscapes.snapshot",
+            dir.resolve("snapshot.bin").toString()));
+        for (String name : new String[] {"profiles", "leaderboard", "journal", "analytics"}) {
+            String property = "wordscapes." + name;
+            System.setProperty(property, System.getProperty(property, dir.resolve(name).toString()));
+        }
+        System.out.println("Live games are saved in " + dir);
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean live = args.length > 0 && args[0].equals("--live");
+        int first = live ? 1 : 0;
+        double speed = args.length > first ? Double.parseDouble(args[first]) : (live ? 20 : 0);
+        int runs = args.length > first + 1 ? Integer.parseInt(args[first + 1]) : 1;
+        List<GameLevel> levels;
+        if (args.length > first + 2) {
+            levels = LevelPack.load(Paths.get(args[first + 2]));
+        } else {
+            GameLevel builtIn = new GameLevel("", new HashSet<>());
+            builtIn.initializeLevels();
+            levels = builtIn.getLevels();
+        }
+        Dictionary dictionary = Dictionary.loadShared().join();
+        SolverBot bot = new SolverBot(dictionary, levels);
+
+        if (live) {
+            useScratchSaves();
+            Leaderboard.loadShared();
+            ProfileStore.loadShared().join(); // Here, not on the EDT when Game first asks for it
+            SwingUtilities.invokeLater(() -> {
+                Game game = new Game(null, args.length > first + 2 ? levels : null, null);
+                bot.playLive(game, speed, runs);
+            });
+            return;
+        }
+
+        GameSession session = new GameSession(levels, new HashMap<>(), PlainWordSlot::new, GameRules.DEFAULT, 1,
+            true, false, null);
+        session.useDictionary(dictionary);
+        int unsolved = 0;
+        long start = System.nanoTime();
+        for (int run = 1; run <= runs; run++) {
+            for (int i = 0; i < levels.size(); i++) {
+                LevelResult result = bot.play(session, i, speed);
+                if (run == 1) {
+                    System.out.printf("level %d %s: %s, %d words and %d taps, %d s, %d hints, score %d%n",
+                        i + 1, levels.get(i).getLetters(), result.completed ? "solved" : "NOT SOLVED",
+                        result.words, result.taps, result.seconds, result.hints, result.score);
+                }
+                if (!result.completed) {
+                    unsolved++;
+                }
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d runs of %d levels, %d not solved, %d taps in %.2f s (%.0f taps/s)%n",
+            runs, levels.size(), unsolved, bot.taps, elapsed, bot.taps / elapsed);
+    }
+}
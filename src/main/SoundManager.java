@@ -11,6 +11,10 @@ public class SoundManager {
     private Clip neutralSound;
     private Clip gameBackgroundMusic;
 
+    // Player settings, shared by every SoundManager
+    private static volatile boolean soundEnabled = true;
+    private static volatile boolean musicEnabled = true;
+
     public SoundManager() {
         loadSounds();
     }
@@ -46,14 +50,19 @@ public class SoundManager {
         }
     }
 
+    public static void applySettings(Profile profile) {
+        soundEnabled = profile.isSoundEnabled();
+        musicEnabled = profile.isMusicEnabled();
+    }
+
     public void playBackgroundMusic() {
-        if (backgroundMusic != null) {
+        if (backgroundMusic != null && musicEnabled) {
             backgroundMusic.loop(Clip.LOOP_CONTINUOUSLY);
         }
     }
     
     public void playGameBackgroundMusic() {
-        if (gameBackgroundMusic != null) {
+        if (gameBackgroundMusic != null && musicEnabled) {
             gameBackgroundMusic.loop(Clip.LOOP_CONTINUOUSLY);
         }
     }
@@ -64,7 +73,7 @@ public class SoundManager {
         }
     }
     private void playSound(Clip clip) {
-        if (clip != null) {
+        if (clip != null && soundEnabled) {
             clip.setFramePosition(0);
             clip.start();
         }
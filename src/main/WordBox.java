@@ -4,11 +4,12 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-class WordBox extends JPanel {
+class WordBox extends JPanel implements WordSlot {
     private final List<JPanel> letterBoxes;
     private boolean isFilled;
     private Set<Integer> revealedLetterPositions = new HashSet<>();
@@ -18,6 +19,7 @@ class WordBox extends JPanel {
     private static final Color BACKGROUND_COLOR = new Color(248, 249, 250); // Bootstrap light color
     private int revealedLetterCount = 0;
     private String word;
+    private final char[] shownLetters; // Letter showing in each box, 0 when empty
 
     public WordBox(String word) {
         if (word == null || word.isEmpty()) {
@@ -25,6 +27,7 @@ class WordBox extends JPanel {
         }
 
         this.word = word;
+        this.shownLetters = new char[word.length()];
 
         setLayout(new BorderLayout(10, 10));
         setOpaque(false); // Make the panel transparent
@@ -62,13 +65,33 @@ class WordBox extends JPanel {
     }
 
     public void fillWord(String word) {
+        GameEvents.WordBoxReveal event = new GameEvents.WordBoxReveal();
+        event.begin();
         for (int i = 0; i < word.length(); i++) {
-            revealLetter(i, word.charAt(i));
+            showLetter(i, word.charAt(i), false);
         }
         isFilled = true;
+        commitReveal(event, word.length(), false);
     }
 
     public void revealLetter(int position, char letter, boolean isHint) {
+        GameEvents.WordBoxReveal event = new GameEvents.WordBoxReveal();
+        event.begin();
+        if (showLetter(position, letter, isHint)) {
+            commitReveal(event, 1, isHint);
+        }
+    }
+
+    private void commitReveal(GameEvents.WordBoxReveal event, int letters, boolean isHint) {
+        if (event.shouldCommit()) {
+            event.wordLength = letterBoxes.size();
+            event.letters = letters;
+            event.hint = isHint;
+            event.commit();
+        }
+    }
+
+    private boolean showLetter(int position, char letter, boolean isHint) {
         if (position >= 0 && position < letterBoxes.size()) {
             JPanel letterBox = letterBoxes.get(position);
             letterBox.removeAll();
@@ -78,10 +101,13 @@ class WordBox extends JPanel {
             letterLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
             letterBox.add(letterLabel);
             revealedLetterPositions.add(position);
+            shownLetters[position] = letter;
             revealedLetterCount++;
             revalidate();
             repaint();
+            return true;
         }
+        return false;
     }
 
     public boolean isLetterRevealed(int position) {
@@ -111,6 +137,7 @@ class WordBox extends JPanel {
             letterBox.repaint();
         }
         revealedLetterPositions.clear();
+        Arrays.fill(shownLetters, (char) 0);
         revealedLetterCount = 0;
         isFilled = false;
         revalidate();
@@ -141,5 +168,10 @@ class WordBox extends JPanel {
     public Set<Integer> getRevealedLetterPositions() {
         return revealedLetterPositions;
     }
+
+    // The letter showing in each box, 0 for empty boxes
+    public char[] getShownLetters() {
+        return shownLetters.clone();
+    }
 }
 
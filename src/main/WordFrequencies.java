@@ -0,0 +1,159 @@
+package main;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * How common each word is, as a Zipf value: log10 of its occurrences per billion words
+ * (about 7 for "the", 1 for words seen once in a billion).
+ *
+ * The table is written by CorpusIngester and read from -Dwordscapes.frequencies
+ * (default res/data/frequencies.bin). Words are packed into a long, 5 bits per letter,
+ * so the file is two flat arrays that load with a single bulk read:
+ *
+ *     int magic, int version, long tokens, int minCount, int count,
+ *     long[count] packed words (ascending), short[count] Zipf x 100
+ */
+public class WordFrequencies implements DifficultyModel.FrequencyLookup {
+    public static final int MAX_LENGTH = 12; // 12 letters x 5 bits fit in a long
+    private static final int MAGIC = 0x57465251; // "WFRQ"
+    private static final int VERSION = 1;
+    private static final String DEFAULT_PATH = "res/data/frequencies.bin";
+
+    private static WordFrequencies shared;
+
+    private final long[] words;
+    private final short[] centiZipf;
+    private final long tokens;
+    private final double unseenZipf; // Words below the table's minimum count
+
+    private WordFrequencies(long[] words, short[] centiZipf, long tokens, int minCount) {
+        this.words = words;
+        this.centiZipf = centiZipf;
+        this.tokens = tokens;
+        this.unseenZipf = tokens > 0 ? zipf(minCount / 2.0, tokens) : Double.NaN;
+    }
+
+    // The table from -Dwordscapes.frequencies, loaded on first use; empty when there is none
+    public static synchronized WordFrequencies shared() {
+        if (shared == null) {
+            Path path = Paths.get(System.getProperty("wordscapes.frequencies", DEFAULT_PATH));
+            if (Files.exists(path)) {
+                shared = load(path);
+            } else {
+                System.out.println("Word frequencies not found: " + path + " (hints use word order)");
+                shared = new WordFrequencies(new long[0], new short[0], 0, 1);
+            }
+        }
+        return shared;
+    }
+
+    public static WordFrequencies load(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("not a word frequency table");
+            }
+            long tokens = buffer.getLong();
+            int minCount = buffer.getInt();
+            int count = buffer.getInt();
+            long[] words = new long[count];
+            short[] centiZipf = new short[count];
+            buffer.asLongBuffer().get(words);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            buffer.asShortBuffer().get(centiZipf);
+            return new WordFrequencies(words, centiZipf, tokens, minCount);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error loading word frequencies from " + path + ": " + e.getMessage());
+            return new WordFrequencies(new long[0], new short[0], 0, 1);
+        }
+    }
+
+    // Write the words seen at least minCount times; the file is replaced atomically
+    public static void write(Path path, LongCountMap counts, long tokens, int minCount) throws IOException {
+        long[] words = counts.sortedKeys(minCount);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(tokens);
+            out.writeInt(minCount);
+            out.writeInt(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+            for (long word : words) {
+                out.writeShort((int) Math.round(100 * zipf(counts.get(word), tokens)));
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static double zipf(double count, long tokens) {
+        return Math.log10(count * 1e9 / tokens);
+    }
+
+    // A-Z word packed 5 bits per letter (A = 1), or -1 if it is too long or not A-Z
+    public static long pack(CharSequence word) {
+        if (word.length() == 0 || word.length() > MAX_LENGTH) {
+            return -1;
+        }
+        long packed = 0;
+        for (int i = 0; i < word.length(); i++) {
+            int c = Character.toUpperCase(word.charAt(i)) - 'A';
+            if (c < 0 || c >= LetterCounts.ALPHABET) {
+                return -1;
+            }
+            packed = (packed << 5) | (c + 1);
+        }
+        return packed;
+    }
+
+    public static String unpack(long packed) {
+        StringBuilder word = new StringBuilder(MAX_LENGTH);
+        for (; packed != 0; packed >>>= 5) {
+            word.append((char) ('A' + (packed & 31) - 1));
+        }
+        return word.reverse().toString();
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    public long getTokenCount() {
+        return tokens;
+    }
+
+    // Zipf value of the word; words missing from a loaded table count as rarer than any in it
+    @Override
+    public double zipf(String word) {
+        long packed = pack(word);
+        int index = packed < 0 ? -1 : Arrays.binarySearch(words, packed);
+        return index >= 0 ? centiZipf[index] / 100.0 : unseenZipf;
+    }
+
+    // Most common words first, unknown words last, ties in alphabetical order
+    public Comparator<String> commonestFirst() {
+        return Comparator.comparingDouble((String word) -> {
+            double zipf = zipf(word);
+            return Double.isNaN(zipf) ? Double.POSITIVE_INFINITY : -zipf;
+        }).thenComparing(Comparator.naturalOrder());
+    }
+}
@@ -0,0 +1,21 @@
+package main;
+
+/**
+ * The row of letter boxes for the answers of one length, as far as the game rules
+ * are concerned. WordBox shows it on screen; PlainWordSlot keeps it in memory for
+ * sessions that run without a screen.
+ */
+interface WordSlot {
+    void fillWord(String word);
+
+    boolean isFilled();
+
+    void setFilled(boolean filled);
+
+    void revealLetter(int position, char letter);
+
+    boolean isLetterRevealed(int position);
+
+    // The letter showing in each box, 0 for empty boxes
+    char[] getShownLetters();
+}
@@ -2,6 +2,7 @@ package main;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -10,13 +11,30 @@ public class WordscapesBackground extends JPanel {
     private List<FallingLetter> fallingLetters;
     private Timer animationTimer;
     private Random random;
+    private String imageName; // Optional image from res/images, painted instead of the gradient
+    private static final LatencyHistogram FRAME_TIME = Metrics.histogram("background.frame");
+    private static final int FALLING_LETTERS = 100;
 
     public WordscapesBackground() {
+        this(null);
+    }
+
+    public WordscapesBackground(String imageName) {
+        this(imageName, FALLING_LETTERS);
+    }
+
+    // The RenderBenchmark paints other numbers of letters
+    WordscapesBackground(String imageName, int letterCount) {
+        this.imageName = imageName;
+        if (imageName != null) {
+            ImageService.getInstance().prefetch(imageName);
+        }
+
         fallingLetters = new ArrayList<>();
         random = new Random();
 
         // Initialize falling letters
-        for (int i = 0; i < 100; i++) {
+        for (int i = 0; i < letterCount; i++) {
             fallingLetters.add(new FallingLetter());
         }
 
@@ -30,6 +48,14 @@ public class WordscapesBackground extends JPanel {
         setOpaque(false);
     }
 
+    // Stop the timer and move the letters on by the given number of frames instead, for the RenderBenchmark
+    void animate(int frames) {
+        animationTimer.stop();
+        for (int i = 0; i < frames; i++) {
+            updateLetters();
+        }
+    }
+
     private void updateLetters() {
         for (FallingLetter letter : fallingLetters) {
             letter.update();
@@ -41,14 +67,23 @@ public class WordscapesBackground extends JPanel {
 
     @Override
     protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        GameEvents.BackgroundFrame event = new GameEvents.BackgroundFrame();
+        event.begin();
         super.paintComponent(g);
         Graphics2D g2d = (Graphics2D) g.create();
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        // Gradient background
-        GradientPaint gradient = new GradientPaint(0, 0, new Color(200, 230, 255), 0, getHeight(), new Color(150, 200, 255));
-        g2d.setPaint(gradient);
-        g2d.fillRect(0, 0, getWidth(), getHeight());
+        // Pre-scaled background image, or the gradient until it has been decoded
+        BufferedImage image = imageName == null ? null
+            : ImageService.getInstance().getScaled(imageName, getWidth(), getHeight(), this::repaint);
+        if (image != null) {
+            g2d.drawImage(image, 0, 0, null);
+        } else {
+            GradientPaint gradient = new GradientPaint(0, 0, new Color(200, 230, 255), 0, getHeight(), new Color(150, 200, 255));
+            g2d.setPaint(gradient);
+            g2d.fillRect(0, 0, getWidth(), getHeight());
+        }
 
         // Draw falling letters
         for (FallingLetter letter : fallingLetters) {
@@ -56,6 +91,15 @@ public class WordscapesBackground extends JPanel {
         }
 
         g2d.dispose();
+        FRAME_TIME.recordSince(start);
+
+        if (event.shouldCommit()) {
+            event.width = getWidth();
+            event.height = getHeight();
+            event.fallingLetters = fallingLetters.size();
+            event.image = image != null;
+            event.commit();
+        }
     }
 
     private class FallingLetter {
@@ -6,4 +6,6 @@
  */
 module wordScapes {
 	requires java.desktop;
+	requires jdk.jfr;
+	requires jdk.management;
 }
\ No newline at end of file